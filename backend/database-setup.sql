@@ -32,6 +32,8 @@ CREATE TABLE IF NOT EXISTS portfolios (
     weaknesses_json TEXT,
     market_outlook TEXT,
     job_recommendations_json TEXT,
+    section_fingerprints TEXT,
+    resume_file_sha256 VARCHAR(64),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -82,3 +84,59 @@ CREATE TABLE IF NOT EXISTS job_recommendations (
 CREATE INDEX IF NOT EXISTS idx_job_recs_user ON job_recommendations(user_id);
 CREATE INDEX IF NOT EXISTS idx_job_recs_scraped_at ON job_recommendations(scraped_at);
 
+
+-- LLM result cache (parsed portfolio / analysis keyed by content hash)
+CREATE TABLE IF NOT EXISTS llm_result_cache (
+    cache_key VARCHAR(64) PRIMARY KEY,
+    kind VARCHAR(32) NOT NULL,
+    model VARCHAR(255) NOT NULL,
+    prompt_version VARCHAR(32) NOT NULL,
+    payload_json TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_llm_result_cache_created_at ON llm_result_cache(created_at);
+
+-- Asynchronous resume processing jobs
+CREATE TABLE IF NOT EXISTS resume_jobs (
+    id VARCHAR(36) PRIMARY KEY,
+    status VARCHAR(16) NOT NULL,
+    stage VARCHAR(32),
+    user_email VARCHAR(255),
+    bypass_cache BOOLEAN NOT NULL DEFAULT FALSE,
+    file_name VARCHAR(500),
+    content_type VARCHAR(255),
+    input_text TEXT,
+    result_json TEXT,
+    error_message TEXT,
+    error_status INTEGER,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    requeues INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    run_after TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_by VARCHAR(100),
+    lease_expires_at TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP
+);
+ALTER TABLE resume_jobs ADD COLUMN IF NOT EXISTS requeues INTEGER NOT NULL DEFAULT 0;
+CREATE INDEX IF NOT EXISTS idx_resume_jobs_status_run_after ON resume_jobs(status, run_after);
+CREATE INDEX IF NOT EXISTS idx_resume_jobs_finished_at ON resume_jobs(finished_at);
+
+-- Uploaded files of queued resume jobs (removed when the job finishes)
+CREATE TABLE IF NOT EXISTS resume_job_files (
+    job_id VARCHAR(36) PRIMARY KEY,
+    data BYTEA NOT NULL
+);
+
+-- Results of batch uploads, per employer (employers is created by Hibernate)
+CREATE TABLE IF NOT EXISTS batch_resume_results (
+    id BIGSERIAL PRIMARY KEY,
+    employer_id BIGINT NOT NULL,
+    batch_id VARCHAR(36) NOT NULL,
+    file_name VARCHAR(500),
+    candidate_name VARCHAR(255),
+    candidate_email VARCHAR(255),
+    result_json TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_batch_resume_results_employer_batch ON batch_resume_results(employer_id, batch_id);
@@ -0,0 +1,107 @@
+package com.portfolio.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class PipelineConfig {
+
+    /**
+     * Bounded pool used to run the resume analysis speculatively while the
+     * portfolio parse is still in flight. When it is saturated submissions are
+     * rejected and the caller falls back to running the analysis inline.
+     */
+    @Bean(name = "analysisExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService analysisExecutor(
+            @Value("${resume.pipeline.analysis-threads:2}") int threads,
+            @Value("${resume.pipeline.analysis-queue:8}") int queueCapacity) {
+        return boundedExecutor("resume-analysis-", threads, queueCapacity);
+    }
+
+    /**
+     * Runs the /parse/stream pipelines so the servlet thread is released as soon
+     * as the SSE response is opened.
+     */
+    @Bean(name = "streamingExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService streamingExecutor(
+            @Value("${resume.stream.threads:4}") int threads,
+            @Value("${resume.stream.queue:16}") int queueCapacity) {
+        return boundedExecutor("resume-stream-", threads, queueCapacity);
+    }
+
+    /**
+     * Runs the per-section parse calls of one resume in parallel. When it is
+     * saturated a section is parsed on the calling thread instead.
+     */
+    @Bean(name = "sectionExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService sectionExecutor(
+            @Value("${resume.sections.threads:4}") int threads,
+            @Value("${resume.sections.queue:16}") int queueCapacity) {
+        return boundedExecutor("resume-section-", threads, queueCapacity);
+    }
+
+    /**
+     * Shared by all batch uploads; each batch also caps its own in-flight
+     * entries. Entries that do not fit run on the request's streaming thread.
+     */
+    @Bean(name = "batchExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService batchExecutor(
+            @Value("${resume.batch.threads:4}") int threads,
+            @Value("${resume.batch.queue:16}") int queueCapacity) {
+        return boundedExecutor("resume-batch-", threads, queueCapacity);
+    }
+
+    /**
+     * Runs the speculative analysis of batch entries, so a large batch queues
+     * here instead of filling the analysisExecutor interactive uploads use.
+     * When it is saturated the entry's analysis runs after its parse.
+     */
+    @Bean(name = "batchAnalysisExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService batchAnalysisExecutor(
+            @Value("${resume.batch.analysis-threads:2}") int threads,
+            @Value("${resume.batch.analysis-queue:8}") int queueCapacity) {
+        return boundedExecutor("resume-batch-analysis-", threads, queueCapacity);
+    }
+
+    /**
+     * Runs each document extraction, so a document that hangs or spins a
+     * parser ties up one of these threads instead of a request thread. When
+     * it is saturated the upload is rejected as busy.
+     */
+    @Bean(name = "documentExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService documentExecutor(
+            @Value("${resume.extract.threads:4}") int threads,
+            @Value("${resume.extract.queue:16}") int queueCapacity) {
+        return boundedExecutor("resume-document-", threads, queueCapacity);
+    }
+
+    /**
+     * Extracts page ranges of large PDFs in parallel. When it is saturated a
+     * range is extracted on the calling thread instead.
+     */
+    @Bean(name = "extractionExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService extractionExecutor(
+            @Value("${resume.extract.pdf.threads:4}") int threads,
+            @Value("${resume.extract.pdf.queue:16}") int queueCapacity) {
+        return boundedExecutor("resume-extract-", threads, queueCapacity);
+    }
+
+    private static ExecutorService boundedExecutor(String namePrefix, int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, namePrefix + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,58 @@
+package com.portfolio.backend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Holds every endpoint except the batch endpoints to
+ * resume.upload.max-file-bytes. The container limit
+ * (spring.servlet.multipart.max-file-size) is sized for batch archives, so
+ * other requests are refused by their Content-Length before any part is
+ * read, or by the size of their parts when the length is not sent up front
+ * (parts above the file-size threshold are on disk by then, not on the heap).
+ */
+public class UploadLimitMultipartResolver extends StandardServletMultipartResolver {
+
+    // Room for the form fields sent along with the file
+    private static final long FORM_OVERHEAD_BYTES = 64 * 1024;
+
+    private final Set<String> largeUploadPaths;
+    private final long maxFileBytes;
+
+    public UploadLimitMultipartResolver(Set<String> largeUploadPaths, long maxFileBytes) {
+        this.largeUploadPaths = largeUploadPaths;
+        this.maxFileBytes = maxFileBytes;
+    }
+
+    @Override
+    public MultipartHttpServletRequest resolveMultipart(HttpServletRequest request) throws MultipartException {
+        boolean limited = !largeUploadPaths.contains(pathOf(request));
+        if (limited && request.getContentLengthLong() > maxFileBytes + FORM_OVERHEAD_BYTES) {
+            throw new MaxUploadSizeExceededException(maxFileBytes);
+        }
+        MultipartHttpServletRequest multipart = super.resolveMultipart(request);
+        if (limited) {
+            for (List<MultipartFile> files : multipart.getMultiFileMap().values()) {
+                for (MultipartFile file : files) {
+                    if (file.getSize() > maxFileBytes) {
+                        cleanupMultipart(multipart);
+                        throw new MaxUploadSizeExceededException(maxFileBytes);
+                    }
+                }
+            }
+        }
+        return multipart;
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.endsWith("/") && path.length() > 1 ? path.substring(0, path.length() - 1) : path;
+    }
+}
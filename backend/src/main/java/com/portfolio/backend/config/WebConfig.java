@@ -1,9 +1,15 @@
 package com.portfolio.backend.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.Set;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
@@ -15,4 +21,11 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .allowCredentials(true);
     }
+
+    /** Only batch uploads may use the full container limit; see UploadLimitMultipartResolver. */
+    @Bean(name = DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME)
+    public MultipartResolver multipartResolver(
+            @Value("${resume.upload.max-file-bytes:10485760}") long maxFileBytes) {
+        return new UploadLimitMultipartResolver(Set.of("/api/resume/batch"), maxFileBytes);
+    }
 }
@@ -2,18 +2,41 @@ package com.portfolio.backend.controller;
 
 import com.portfolio.backend.dto.ErrorResponse;
 import com.portfolio.backend.dto.ParseResponse;
-import com.portfolio.backend.dto.PortfolioData;
-import com.portfolio.backend.dto.ResumeAnalysis;
-import com.portfolio.backend.entity.Portfolio;
-import com.portfolio.backend.entity.ResumeAnalysisEntity;
-import com.portfolio.backend.service.DocumentParserService;
-import com.portfolio.backend.service.OllamaService;
-import com.portfolio.backend.service.PortfolioService;
-import com.portfolio.backend.repository.ResumeAnalysisRepository;
-import com.portfolio.backend.repository.UserRepository;
+import com.portfolio.backend.dto.ResumeJobResponse;
+import com.portfolio.backend.entity.Employer;
+import com.portfolio.backend.entity.ResumeJob;
+import com.portfolio.backend.service.LlmCallContext;
+import com.portfolio.backend.service.LlmPriority;
+import com.portfolio.backend.service.LlmQueueFullException;
+import com.portfolio.backend.service.LlmResultCache;
+import com.portfolio.backend.service.LlmWorkScheduler;
+import com.portfolio.backend.service.OllamaCircuitBreaker;
+import com.portfolio.backend.service.OllamaEndpointPool;
+import com.portfolio.backend.service.OllamaModelWarmer;
+import com.portfolio.backend.service.OllamaUnavailableException;
+import com.portfolio.backend.service.OllamaUsageStats;
+import com.portfolio.backend.service.ResumeBatchService;
+import com.portfolio.backend.service.ResumeJobService;
+import com.portfolio.backend.service.RequestTrace;
+import com.portfolio.backend.service.ResumePipeline;
+import com.portfolio.backend.service.StageMetrics;
+import com.portfolio.backend.service.ResumeRejectedException;
+import com.portfolio.backend.repository.EmployerRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/resume")
@@ -22,137 +45,139 @@ import org.springframework.web.multipart.MultipartFile;
         "http://localhost:3001" })
 public class ResumeController {
 
-    private final DocumentParserService documentParserService;
-    private final OllamaService ollamaService;
-    private final PortfolioService portfolioService;
-    private final ResumeAnalysisRepository resumeAnalysisRepository;
-    private final UserRepository userRepository;
+    /** What a resume request does with the user's saved portfolio. */
+    private enum Mode {
+        /** Parse and save over the saved portfolio. */
+        PARSE,
+        /** Re-parse only the sections that changed since the saved portfolio. */
+        REPROCESS,
+        /** Parse, then replace the saved portfolio and its analysis history. */
+        REPLACE
+    }
+
+    private final ResumePipeline resumePipeline;
+    private final ResumeJobService resumeJobService;
+    private final ResumeBatchService resumeBatchService;
+    private final EmployerRepository employerRepository;
+    private final ExecutorService streamingExecutor;
+    private final LlmResultCache llmResultCache;
+    private final LlmWorkScheduler llmWorkScheduler;
+    private final OllamaEndpointPool ollamaEndpointPool;
+    private final OllamaUsageStats ollamaUsageStats;
+    private final OllamaCircuitBreaker ollamaCircuitBreaker;
+    private final OllamaModelWarmer ollamaModelWarmer;
+    private final StageMetrics stageMetrics;
+
+    @Value("${resume.stream.timeout-ms:300000}")
+    private long streamTimeoutMs;
+
+    // Budget of a synchronous resume request across its model calls (0 = none)
+    @Value("${resume.request.deadline-ms:120000}")
+    private long requestDeadlineMs;
+
+    // Answer with the rule-based extraction instead of 429 when the LLM queue is full
+    @Value("${resume.degraded-on-overload:true}")
+    private boolean degradedOnOverload;
 
-    public ResumeController(DocumentParserService documentParserService,
-            OllamaService ollamaService,
-            PortfolioService portfolioService,
-            ResumeAnalysisRepository resumeAnalysisRepository,
-            UserRepository userRepository) {
-        this.documentParserService = documentParserService;
-        this.ollamaService = ollamaService;
-        this.portfolioService = portfolioService;
-        this.resumeAnalysisRepository = resumeAnalysisRepository;
-        this.userRepository = userRepository;
+    // Return X-Trace-Id and a Server-Timing stage breakdown with each resume response
+    @Value("${resume.trace.timing-header:true}")
+    private boolean timingHeader;
+
+    public ResumeController(ResumePipeline resumePipeline,
+            ResumeJobService resumeJobService,
+            ResumeBatchService resumeBatchService,
+            EmployerRepository employerRepository,
+            @Qualifier("streamingExecutor") ExecutorService streamingExecutor,
+            LlmResultCache llmResultCache,
+            LlmWorkScheduler llmWorkScheduler,
+            OllamaEndpointPool ollamaEndpointPool,
+            OllamaUsageStats ollamaUsageStats,
+            OllamaCircuitBreaker ollamaCircuitBreaker,
+            OllamaModelWarmer ollamaModelWarmer,
+            StageMetrics stageMetrics) {
+        this.resumePipeline = resumePipeline;
+        this.resumeJobService = resumeJobService;
+        this.resumeBatchService = resumeBatchService;
+        this.employerRepository = employerRepository;
+        this.streamingExecutor = streamingExecutor;
+        this.llmResultCache = llmResultCache;
+        this.llmWorkScheduler = llmWorkScheduler;
+        this.ollamaEndpointPool = ollamaEndpointPool;
+        this.ollamaUsageStats = ollamaUsageStats;
+        this.ollamaCircuitBreaker = ollamaCircuitBreaker;
+        this.ollamaModelWarmer = ollamaModelWarmer;
+        this.stageMetrics = stageMetrics;
     }
 
     @PostMapping("/parse")
     public ResponseEntity<?> parseResume(
             @RequestParam(value = "file", required = false) MultipartFile file,
             @RequestParam(value = "text", required = false) String text,
-            @RequestParam(value = "userEmail", required = false) String userEmail) {
+            @RequestParam(value = "userEmail", required = false) String userEmail,
+            @RequestParam(value = "bypassCache", defaultValue = "false") boolean bypassCache) {
+        return processResume(file, text, userEmail,
+                new LlmCallContext(LlmPriority.INTERACTIVE, userEmail, bypassCache, requestDeadlineMs), Mode.PARSE);
+    }
 
+    /**
+     * Runs the request under a RequestTrace: the stage timings are logged with
+     * the trace id and, unless disabled, returned as X-Trace-Id and
+     * Server-Timing headers.
+     */
+    private ResponseEntity<?> processResume(MultipartFile file, String text, String userEmail,
+            LlmCallContext llmContext, Mode mode) {
+        if ((file == null || file.isEmpty()) && (text == null || text.isEmpty())) {
+            return ResponseEntity.badRequest().build();
+        }
+        RequestTrace trace = RequestTrace.start();
+        long start = System.nanoTime();
         try {
-            String resumeText;
-            MultipartFile resumeFile = null;
-
-            if (file != null && !file.isEmpty()) {
-                System.out.println("Processing file: " + file.getOriginalFilename());
-                resumeText = documentParserService.extractText(file);
-                resumeFile = file;
-            } else if (text != null && !text.isEmpty()) {
-                System.out.println("Processing text input");
-                resumeText = text;
-            } else {
-                return ResponseEntity.badRequest().build();
+            ResponseEntity<?> response = runPipeline(file, text, userEmail, llmContext, mode);
+            stageMetrics.record("request", start);
+            System.out.println(trace);
+            if (!timingHeader) {
+                return response;
             }
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(response.getHeaders())
+                    .header("X-Trace-Id", trace.getId())
+                    .header("Server-Timing", trace.serverTiming())
+                    .body(response.getBody());
+        } finally {
+            RequestTrace.clear();
+        }
+    }
 
-            System.out.println("Parsing resume with Ollama...");
-            PortfolioData portfolio = ollamaService.parseResume(resumeText);
-
-            // Validate parsed data quality - reject obvious address/location misparses
-            if (portfolio.getFullName() == null || portfolio.getFullName().trim().isEmpty()) {
-                ErrorResponse error = new ErrorResponse(
-                        "Failed to parse resume properly. The AI service may be unavailable. Please ensure Ollama is running and try again.");
-                return ResponseEntity.status(503).body(error);
-            }
-
-            String nameLC = portfolio.getFullName().toLowerCase();
-            if (nameLC.contains("house") || nameLC.contains("street") || nameLC.contains("road") ||
-                    nameLC.contains("avenue") || nameLC.contains("blvd") || nameLC.contains("apt") ||
-                    nameLC.contains("apartment") || nameLC.contains("suite") || nameLC.contains("unit") ||
-                    portfolio.getFullName().matches(".*\\d{3,}.*")) { // Only reject if 3+ consecutive digits (like zip
-                                                                      // code)
-                ErrorResponse error = new ErrorResponse(
-                        "Failed to parse resume properly. The AI service may be unavailable. Please ensure Ollama is running and try again.");
-                return ResponseEntity.status(503).body(error);
-            }
-
-            // Super relaxed validation: Check if email OR any part of the name matches
-            if (userEmail != null && !userEmail.trim().isEmpty()) {
-                String userEmailLC = userEmail.trim().toLowerCase();
-                String resumeTextLC = resumeText.toLowerCase();
-
-                boolean match = resumeTextLC.contains(userEmailLC);
-
-                if (!match) {
-                    // Try matching by name parts if email isn't found
-                    String userName = userRepository.findByEmail(userEmail)
-                            .map(com.portfolio.backend.entity.User::getName)
-                            .orElse("");
-
-                    if (!userName.isEmpty()) {
-                        String[] nameParts = userName.toLowerCase().split("\\s+");
-                        for (String part : nameParts) {
-                            if (part.length() > 2 && resumeTextLC.contains(part)) {
-                                match = true;
-                                break;
-                            }
-                        }
-                    }
-                }
-
-                if (!match) {
-                    ErrorResponse error = new ErrorResponse(
-                            "Resume validation failed. We couldn't find your name or email in the uploaded document.");
-                    return ResponseEntity.badRequest().body(error);
-                }
-
-                // If AI parsed a different email (or failed to parse one),
-                // override it with the verified account email
-                if (portfolio.getEmail() == null || !portfolio.getEmail().trim().equalsIgnoreCase(userEmailLC)) {
-                    portfolio.setEmail(userEmail.trim());
-                }
-            }
-
-            System.out.println("Analyzing resume with Ollama...");
-            ResumeAnalysis analysis = ollamaService.analyzeResume(resumeText);
-
-            ParseResponse response = new ParseResponse();
-            response.setPortfolio(portfolio);
-            response.setAnalysis(analysis);
-
-            // Save to PostgreSQL database
-            System.out.println("Saving portfolio to database...");
-            Portfolio savedPortfolio = portfolioService.savePortfolio(response, resumeFile);
-            System.out.println("Portfolio saved with ID: " + savedPortfolio.getId());
-
-            // Set the saved portfolio ID in the response
-            portfolio.setId(savedPortfolio.getId());
-            response.setPortfolio(portfolio);
-
-            // Persist analysis per user (if available)
-            userRepository.findByEmail(portfolio.getEmail()).ifPresent(user -> {
-                ResumeAnalysisEntity ra = new ResumeAnalysisEntity();
-                ra.setUser(user);
-                ra.setResumeText(resumeText);
-                ra.setAnalysisScores("{\"overall\":" + (analysis.getScore() == null ? 0 : analysis.getScore()) + "}");
-                ra.setStrengths(com.fasterxml.jackson.databind.json.JsonMapper.builder().build()
-                        .valueToTree(analysis.getStrengths()).toString());
-                ra.setWeaknesses(com.fasterxml.jackson.databind.json.JsonMapper.builder().build()
-                        .valueToTree(analysis.getWeaknesses()).toString());
-                ra.setIdentifiedSkills(com.fasterxml.jackson.databind.json.JsonMapper.builder().build()
-                        .valueToTree(portfolio.getSkills()).toString());
-                ra.setRecommendedSkills("[]");
-                resumeAnalysisRepository.save(ra);
-            });
-
+    private ResponseEntity<?> runPipeline(MultipartFile file, String text, String userEmail,
+            LlmCallContext llmContext, Mode mode) {
+        String resumeText = null;
+        MultipartFile upload = null;
+        try {
+            upload = resumePipeline.stageUpload(file);
+            resumeText = resumePipeline.extractText(upload, text, null);
+            ParseResponse response = switch (mode) {
+                case PARSE -> resumePipeline.process(resumeText, upload, userEmail, llmContext, null);
+                case REPROCESS -> resumePipeline.reprocess(resumeText, upload, userEmail, llmContext, null);
+                case REPLACE -> resumePipeline.replace(resumeText, upload, userEmail, llmContext, null);
+            };
             return ResponseEntity.ok(response);
 
+        } catch (ResumeRejectedException e) {
+            return ResponseEntity.status(e.getStatus()).body(new ErrorResponse(e.getMessage()));
+        } catch (LlmQueueFullException e) {
+            if (degradedOnOverload && resumeText != null && llmContext.getPriority() == LlmPriority.INTERACTIVE) {
+                System.out.println("LLM queue saturated, answering with the basic extraction: " + e.getMessage());
+                return ResponseEntity.ok()
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                        .body(resumePipeline.degradedResult(resumeText));
+            }
+            System.out.println("Rejecting resume request, LLM queue saturated: " + e.getMessage());
+            return ResponseEntity.status(429)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (OllamaUnavailableException e) {
+            // Only re-analysis gets here; new uploads use the fallback portfolio
+            return unavailable(e);
         } catch (Exception e) {
             System.err.println("Error processing resume: " + e.getMessage());
             e.printStackTrace();
@@ -161,35 +186,241 @@ public class ResumeController {
                     "Unable to process resume. Please ensure Ollama AI service is running and try again. Error: "
                             + e.getMessage());
             return ResponseEntity.status(503).body(error);
+        } finally {
+            resumePipeline.discardUpload(upload);
         }
     }
 
+    /**
+     * Same pipeline as /parse, but streams progress as Server-Sent Events:
+     * "stage" on each pipeline step, "portfolio"/"analysis" for every field the
+     * model finishes generating, a "timing" event with the stage breakdown of
+     * the request, then a final "result" (or "error") event.
+     */
+    @PostMapping(value = "/parse/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter parseResumeStream(
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "text", required = false) String text,
+            @RequestParam(value = "userEmail", required = false) String userEmail,
+            @RequestParam(value = "bypassCache", defaultValue = "false") boolean bypassCache) {
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        if ((file == null || file.isEmpty()) && (text == null || text.isEmpty())) {
+            sendEvent(emitter, "error", new ErrorResponse("No resume file or text provided."));
+            emitter.complete();
+            return emitter;
+        }
+
+        try {
+            LlmCallContext llmContext = new LlmCallContext(LlmPriority.INTERACTIVE, userEmail, bypassCache,
+                    requestDeadlineMs);
+            streamingExecutor.execute(() -> runStreamingPipeline(emitter, file, text, userEmail, llmContext));
+        } catch (RejectedExecutionException e) {
+            sendEvent(emitter, "error", new ErrorResponse("Server is busy processing other resumes. Please try again."));
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    private void runStreamingPipeline(SseEmitter emitter, MultipartFile file, String text, String userEmail,
+            LlmCallContext llmContext) {
+        ResumePipeline.ProgressListener progress = (name, data) -> sendEvent(emitter, name, data);
+        RequestTrace trace = RequestTrace.start();
+        long start = System.nanoTime();
+        String resumeText = null;
+        MultipartFile upload = null;
+        try {
+            upload = resumePipeline.stageUpload(file);
+            resumeText = resumePipeline.extractText(upload, text, progress);
+            ParseResponse response = resumePipeline.process(resumeText, upload, userEmail, llmContext, progress);
+            stageMetrics.record("request", start);
+            System.out.println(trace);
+            sendEvent(emitter, "timing", trace.toMap());
+            sendEvent(emitter, "result", response);
+            emitter.complete();
+        } catch (ResumeRejectedException e) {
+            sendEvent(emitter, "error", new ErrorResponse(e.getMessage()));
+            emitter.complete();
+        } catch (LlmQueueFullException e) {
+            if (degradedOnOverload && resumeText != null) {
+                sendEvent(emitter, "result", resumePipeline.degradedResult(resumeText));
+                emitter.complete();
+                return;
+            }
+            sendEvent(emitter, "error", Map.of("message", e.getMessage(), "error", e.getMessage(),
+                    "retryAfterSeconds", e.getRetryAfterSeconds()));
+            emitter.complete();
+        } catch (Exception e) {
+            System.err.println("Error processing resume (streaming): " + e.getMessage());
+            sendEvent(emitter, "error", new ErrorResponse(
+                    "Unable to process resume. Please ensure Ollama AI service is running and try again. Error: "
+                            + e.getMessage()));
+            emitter.complete();
+        } finally {
+            resumePipeline.discardUpload(upload);
+            RequestTrace.clear();
+        }
+    }
+
+    /**
+     * Queues the resume for the worker pool and answers 202 with the job id
+     * right away; poll GET /jobs/{id} or subscribe to /jobs/{id}/events.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitJob(
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "text", required = false) String text,
+            @RequestParam(value = "userEmail", required = false) String userEmail,
+            @RequestParam(value = "bypassCache", defaultValue = "false") boolean bypassCache) {
+        if ((file == null || file.isEmpty()) && (text == null || text.isEmpty())) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("No resume file or text provided."));
+        }
+        try {
+            ResumeJob job = resumeJobService.submit(file, text, userEmail, bypassCache);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/resume/jobs/" + job.getId()))
+                    .body(resumeJobService.status(job.getId()).orElseThrow());
+        } catch (ResumeRejectedException e) {
+            return ResponseEntity.status(e.getStatus()).body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("Could not queue resume job: " + e.getMessage());
+            return ResponseEntity.status(503).body(new ErrorResponse("Could not queue resume: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Bulk ingestion for an employer: a ZIP archive and/or several files.
+     * Answers with one NDJSON line per resume as it is saved, then a summary
+     * line with the batch id.
+     */
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> parseBatch(
+            @RequestParam(value = "archive", required = false) MultipartFile archive,
+            @RequestParam(value = "files", required = false) List<MultipartFile> files,
+            @RequestParam(value = "employerEmail", required = false) String employerEmail,
+            @RequestParam(value = "bypassCache", defaultValue = "false") boolean bypassCache) {
+        if ((archive == null || archive.isEmpty()) && (files == null || files.isEmpty())) {
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_NDJSON)
+                    .body(out -> out.write("{\"message\":\"No archive or files provided.\"}\n".getBytes()));
+        }
+        Employer employer = employerEmail == null ? null : employerRepository.findByEmail(employerEmail).orElse(null);
+        if (employer == null) {
+            return ResponseEntity.status(403).contentType(MediaType.APPLICATION_NDJSON)
+                    .body(out -> out.write("{\"message\":\"Employer not found. Please register first.\"}\n".getBytes()));
+        }
+        StreamingResponseBody body = out -> resumeBatchService.process(archive, files, employer, bypassCache, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/batch/{batchId}")
+    public ResponseEntity<?> batchResults(@PathVariable String batchId,
+            @RequestParam("employerEmail") String employerEmail) throws Exception {
+        Employer employer = employerRepository.findByEmail(employerEmail).orElse(null);
+        if (employer == null) {
+            return ResponseEntity.status(403).body(new ErrorResponse("Employer not found. Please register first."));
+        }
+        return ResponseEntity.ok(resumeBatchService.results(employer, batchId));
+    }
+
+    @GetMapping("/jobs/stats")
+    public ResponseEntity<Map<String, Object>> jobStats() {
+        return ResponseEntity.ok(resumeJobService.stats());
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ResumeJobResponse> jobStatus(@PathVariable String id) {
+        return resumeJobService.status(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/jobs/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter jobEvents(@PathVariable String id) {
+        return resumeJobService.subscribe(id, streamTimeoutMs);
+    }
+
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (Exception e) {
+            // Client went away; the pipeline still completes and persists the result
+            System.err.println("Could not send '" + name + "' event: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Re-analysis of the user's resume. It never falls back to the basic
+     * portfolio: while the model is unavailable it answers 503 and the saved
+     * portfolio and analysis history stay as they are.
+     */
     @org.springframework.transaction.annotation.Transactional
     @PostMapping("/clear-and-reanalyze")
     public ResponseEntity<?> clearAndReanalyze(
             @RequestParam(value = "file", required = false) MultipartFile file,
             @RequestParam(value = "text", required = false) String text,
-            @RequestParam(value = "userEmail", required = false) String userEmail) {
-
-        // Remove existing portfolio and analysis for this email to force a fresh AI
-        // parse
-        if (userEmail != null && !userEmail.trim().isEmpty()) {
-            System.out.println("Clearing existing data to force re-analysis: " + userEmail);
+            @RequestParam(value = "userEmail", required = false) String userEmail,
+            @RequestParam(value = "bypassCache", defaultValue = "false") boolean bypassCache) {
 
-            // Clear portfolio
-            portfolioService.deletePortfolioByEmail(userEmail);
+        // Re-analysis is queued behind interactive uploads
+        LlmCallContext llmContext = new LlmCallContext(LlmPriority.BATCH, userEmail, bypassCache).withoutFallback();
+        try {
+            ollamaCircuitBreaker.check();
+        } catch (OllamaUnavailableException e) {
+            return unavailable(e);
+        }
 
-            // Clear analysis history
-            userRepository.findByEmail(userEmail).ifPresent(user -> {
-                resumeAnalysisRepository.deleteByUser(user);
-            });
+        // Keep the portfolio and its history and re-parse only the sections that changed
+        if (resumePipeline.canReprocess(userEmail)) {
+            return processResume(file, text, userEmail, llmContext, Mode.REPROCESS);
         }
 
-        return parseResume(file, text, userEmail);
+        // Otherwise parse in full; the existing portfolio and analysis history are
+        // removed only once the new result is ready to be saved
+        return processResume(file, text, userEmail, llmContext, Mode.REPLACE);
+    }
+
+    private static ResponseEntity<?> unavailable(OllamaUnavailableException e) {
+        return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse("The AI service is unavailable. Please try again shortly."));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        return ResponseEntity.ok(llmResultCache.stats());
+    }
+
+    @GetMapping("/queue/stats")
+    public ResponseEntity<Map<String, Object>> queueStats() {
+        return ResponseEntity.ok(llmWorkScheduler.stats());
+    }
+
+    @GetMapping("/ollama/backends")
+    public ResponseEntity<Map<String, Object>> ollamaBackends() {
+        return ResponseEntity.ok(ollamaEndpointPool.stats());
+    }
+
+    @GetMapping("/ollama/circuit")
+    public ResponseEntity<Map<String, Object>> ollamaCircuit() {
+        return ResponseEntity.ok(ollamaCircuitBreaker.stats());
+    }
+
+    @GetMapping("/ollama/warmup")
+    public ResponseEntity<Map<String, Object>> ollamaWarmup() {
+        return ResponseEntity.ok(ollamaModelWarmer.stats());
+    }
+
+    @GetMapping("/ollama/usage")
+    public ResponseEntity<Map<String, Object>> ollamaUsage() {
+        return ResponseEntity.ok(ollamaUsageStats.stats());
     }
 
     @GetMapping("/health")
     public ResponseEntity<String> health() {
+        // Not ready until the models are loaded, so traffic is not routed to a cold instance
+        if (!ollamaModelWarmer.isReady()) {
+            return ResponseEntity.status(503).body("Resume API is warming up");
+        }
         return ResponseEntity.ok("Resume API is running");
     }
 }
@@ -0,0 +1,89 @@
+package com.portfolio.backend.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads 0-100 values (skill levels, resume score) the way the model tends to
+ * write them: plain numbers, quoted numbers ("80"), percentages ("80%") and
+ * ranges ("70-90", averaged). Descriptive text uses its first number, and
+ * anything without a number falls back to 60. Results are clamped to [0, 100].
+ */
+public class LenientPercentDeserializer extends StdDeserializer<Integer> {
+
+    private static final int DEFAULT_VALUE = 60;
+
+    public LenientPercentDeserializer() {
+        super(Integer.class);
+    }
+
+    @Override
+    public Integer deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return clamp((int) Math.round(p.getDoubleValue()));
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            return parse(p.getText());
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        // Objects/arrays/booleans are not meaningful here; skip them
+        p.skipChildren();
+        return DEFAULT_VALUE;
+    }
+
+    /** Hand-rolled scan instead of regexes: first number, optionally "- second". */
+    static int parse(String text) {
+        if (text == null) {
+            return DEFAULT_VALUE;
+        }
+        int i = 0;
+        int n = text.length();
+        while (i < n && !isDigit(text.charAt(i))) {
+            i++;
+        }
+        if (i == n) {
+            return DEFAULT_VALUE;
+        }
+        int first = 0;
+        int digits = 0;
+        while (i < n && isDigit(text.charAt(i)) && digits < 3) {
+            first = first * 10 + (text.charAt(i++) - '0');
+            digits++;
+        }
+        while (i < n && text.charAt(i) == ' ') {
+            i++;
+        }
+        if (i < n && (text.charAt(i) == '-' || text.charAt(i) == '–')) {
+            i++;
+            while (i < n && text.charAt(i) == ' ') {
+                i++;
+            }
+            if (i < n && isDigit(text.charAt(i))) {
+                int second = 0;
+                digits = 0;
+                while (i < n && isDigit(text.charAt(i)) && digits < 3) {
+                    second = second * 10 + (text.charAt(i++) - '0');
+                    digits++;
+                }
+                return clamp((first + second) / 2);
+            }
+        }
+        return clamp(first);
+    }
+
+    /** ASCII only: Character.isDigit also accepts other scripts' digits, which c - '0' does not convert. */
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(100, value));
+    }
+}
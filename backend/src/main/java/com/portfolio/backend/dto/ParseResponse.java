@@ -3,6 +3,7 @@ package com.portfolio.backend.dto;
 public class ParseResponse {
     private PortfolioData portfolio;
     private ResumeAnalysis analysis;
+    private boolean degraded;
 
     public PortfolioData getPortfolio() {
         return portfolio;
@@ -19,4 +20,12 @@ public class ParseResponse {
     public void setAnalysis(ResumeAnalysis analysis) {
         this.analysis = analysis;
     }
+
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    public void setDegraded(boolean degraded) {
+        this.degraded = degraded;
+    }
 }
@@ -1,6 +1,7 @@
 package com.portfolio.backend.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import java.util.List;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -135,6 +136,7 @@ public class PortfolioData {
 
     public static class Skill {
         private String name;
+        @JsonDeserialize(using = LenientPercentDeserializer.class)
         private Integer level;
         private String category;
 
@@ -1,8 +1,10 @@
 package com.portfolio.backend.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import java.util.List;
 
 public class ResumeAnalysis {
+    @JsonDeserialize(using = LenientPercentDeserializer.class)
     private Integer score;
     private String summary;
     private List<String> strengths;
@@ -0,0 +1,49 @@
+package com.portfolio.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "llm_result_cache", indexes = {
+        @Index(name = "idx_llm_result_cache_created_at", columnList = "created_at")
+})
+public class LlmResultCacheEntry {
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey; // SHA-256 hex of kind + model + prompt version + normalized text
+
+    @Column(nullable = false, length = 32)
+    private String kind; // "portfolio" or "analysis"
+
+    @Column(nullable = false)
+    private String model;
+
+    @Column(name = "prompt_version", nullable = false, length = 32)
+    private String promptVersion;
+
+    @Column(name = "payload_json", columnDefinition = "TEXT", nullable = false)
+    private String payloadJson;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    public String getCacheKey() { return cacheKey; }
+    public void setCacheKey(String cacheKey) { this.cacheKey = cacheKey; }
+    public String getKind() { return kind; }
+    public void setKind(String kind) { this.kind = kind; }
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+    public String getPromptVersion() { return promptVersion; }
+    public void setPromptVersion(String promptVersion) { this.promptVersion = promptVersion; }
+    public String getPayloadJson() { return payloadJson; }
+    public void setPayloadJson(String payloadJson) { this.payloadJson = payloadJson; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
 public class Portfolio {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence (the BIGSERIAL one) rather than IDENTITY so Hibernate can batch inserts
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "portfolio_id")
+    @SequenceGenerator(name = "portfolio_id", sequenceName = "portfolios_id_seq", allocationSize = 1)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -66,6 +68,14 @@ public class Portfolio {
     @Column(name = "resume_file_path")
     private String resumeFilePath;
 
+    // SHA-256 of the stored resume file; an identical re-upload is not written again
+    @Column(name = "resume_file_sha256", length = 64)
+    private String resumeFileSha256;
+
+    // ResumeFingerprint JSON of the resume this portfolio was parsed from
+    @Column(name = "section_fingerprints", columnDefinition = "TEXT")
+    private String sectionFingerprints;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -275,4 +285,20 @@ public class Portfolio {
     public void setResumeFilePath(String resumeFilePath) {
         this.resumeFilePath = resumeFilePath;
     }
+
+    public String getResumeFileSha256() {
+        return resumeFileSha256;
+    }
+
+    public void setResumeFileSha256(String resumeFileSha256) {
+        this.resumeFileSha256 = resumeFileSha256;
+    }
+
+    public String getSectionFingerprints() {
+        return sectionFingerprints;
+    }
+
+    public void setSectionFingerprints(String sectionFingerprints) {
+        this.sectionFingerprints = sectionFingerprints;
+    }
 }
@@ -7,7 +7,9 @@ import java.time.LocalDateTime;
 @Table(name = "resume_analyses")
 public class ResumeAnalysisEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence (the BIGSERIAL one) rather than IDENTITY so Hibernate can batch inserts
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "resume_analysis_id")
+    @SequenceGenerator(name = "resume_analysis_id", sequenceName = "resume_analyses_id_seq", allocationSize = 1)
     private Long id;
 
     @ManyToOne(optional = false)
@@ -0,0 +1,130 @@
+package com.portfolio.backend.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "resume_jobs", indexes = {
+        @Index(name = "idx_resume_jobs_status_run_after", columnList = "status, run_after"),
+        @Index(name = "idx_resume_jobs_finished_at", columnList = "finished_at")
+})
+public class ResumeJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED;
+        }
+    }
+
+    @Id
+    @Column(length = 36)
+    private String id; // random UUID, handed to the client
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(length = 32)
+    private String stage; // "extracting", "parsing", "analyzing", "saving" while running
+
+    @Column(name = "user_email")
+    private String userEmail;
+
+    @Column(name = "bypass_cache", nullable = false)
+    private boolean bypassCache;
+
+    @Column(name = "file_name", length = 500)
+    private String fileName;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "input_text", columnDefinition = "TEXT")
+    private String inputText; // pasted resume text when no file was uploaded
+
+    @Column(name = "result_json", columnDefinition = "TEXT")
+    private String resultJson; // ParseResponse JSON
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "error_status")
+    private Integer errorStatus; // HTTP status the synchronous endpoint would have answered with
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int requeues; // times given back to the queue while the LLM queue or the extractors were busy
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "run_after", nullable = false)
+    private LocalDateTime runAfter; // not picked up before this time (database clock; set when requeued)
+
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy; // worker node holding the lease while RUNNING
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt; // renewed by heartbeats; an expired lease makes the job claimable again
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (runAfter == null) {
+            runAfter = createdAt;
+        }
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public String getStage() { return stage; }
+    public void setStage(String stage) { this.stage = stage; }
+    public String getUserEmail() { return userEmail; }
+    public void setUserEmail(String userEmail) { this.userEmail = userEmail; }
+    public boolean isBypassCache() { return bypassCache; }
+    public void setBypassCache(boolean bypassCache) { this.bypassCache = bypassCache; }
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+    public String getInputText() { return inputText; }
+    public void setInputText(String inputText) { this.inputText = inputText; }
+    public String getResultJson() { return resultJson; }
+    public void setResultJson(String resultJson) { this.resultJson = resultJson; }
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+    public Integer getErrorStatus() { return errorStatus; }
+    public void setErrorStatus(Integer errorStatus) { this.errorStatus = errorStatus; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public int getRequeues() { return requeues; }
+    public void setRequeues(int requeues) { this.requeues = requeues; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getRunAfter() { return runAfter; }
+    public void setRunAfter(LocalDateTime runAfter) { this.runAfter = runAfter; }
+    public String getLockedBy() { return lockedBy; }
+    public void setLockedBy(String lockedBy) { this.lockedBy = lockedBy; }
+    public LocalDateTime getLeaseExpiresAt() { return leaseExpiresAt; }
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) { this.leaseExpiresAt = leaseExpiresAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
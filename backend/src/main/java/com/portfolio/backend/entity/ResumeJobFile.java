@@ -0,0 +1,32 @@
+package com.portfolio.backend.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Uploaded file of a queued resume job. Kept apart from resume_jobs so status
+ * reads do not load the document, and in the database so any node can run
+ * the job. Deleted when the job finishes.
+ */
+@Entity
+@Table(name = "resume_job_files")
+public class ResumeJobFile {
+    @Id
+    @Column(name = "job_id", length = 36)
+    private String jobId;
+
+    @Column(name = "data", columnDefinition = "bytea", nullable = false)
+    private byte[] data;
+
+    public ResumeJobFile() {
+    }
+
+    public ResumeJobFile(String jobId, byte[] data) {
+        this.jobId = jobId;
+        this.data = data;
+    }
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+    public byte[] getData() { return data; }
+    public void setData(byte[] data) { this.data = data; }
+}
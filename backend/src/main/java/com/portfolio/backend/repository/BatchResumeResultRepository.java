@@ -0,0 +1,13 @@
+package com.portfolio.backend.repository;
+
+import com.portfolio.backend.entity.BatchResumeResult;
+import com.portfolio.backend.entity.Employer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BatchResumeResultRepository extends JpaRepository<BatchResumeResult, Long> {
+    List<BatchResumeResult> findByEmployerAndBatchIdOrderById(Employer employer, String batchId);
+}
@@ -0,0 +1,20 @@
+package com.portfolio.backend.repository;
+
+import com.portfolio.backend.entity.LlmResultCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface LlmResultCacheRepository extends JpaRepository<LlmResultCacheEntry, String> {
+
+    @Modifying
+    @Transactional
+    @Query("delete from LlmResultCacheEntry e where e.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,9 @@
+package com.portfolio.backend.repository;
+
+import com.portfolio.backend.entity.ResumeJobFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ResumeJobFileRepository extends JpaRepository<ResumeJobFile, String> {
+}
@@ -0,0 +1,123 @@
+package com.portfolio.backend.repository;
+
+import com.portfolio.backend.entity.ResumeJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ResumeJobRepository extends JpaRepository<ResumeJob, String> {
+
+    /**
+     * The database clock. Leases and run_after are compared and set in this
+     * time only, so nodes whose clocks drift apart still agree on when a
+     * lease expires.
+     */
+    @Query(value = "SELECT LOCALTIMESTAMP", nativeQuery = true)
+    LocalDateTime databaseNow();
+
+    /**
+     * Locks up to :limit runnable jobs (queued and due, or running with an
+     * expired lease) for the current transaction. Rows locked by another node
+     * are skipped rather than waited on. Must be followed by claim() in the
+     * same transaction.
+     */
+    @Query(value = "SELECT id FROM resume_jobs "
+            + "WHERE (status = 'QUEUED' AND run_after <= :now) "
+            + "OR (status = 'RUNNING' AND lease_expires_at < :now AND attempts < :maxAttempts) "
+            + "ORDER BY run_after LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<String> lockClaimable(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts,
+            @Param("limit") int limit);
+
+    /**
+     * Locks the job for the rest of the transaction if this node still holds
+     * the claim numbered attempt (the fencing token). Saving a job's result
+     * and completing it happen under this lock, so a node whose lease was
+     * taken over cannot save over the new owner's work, and a node cannot
+     * take the job over while the result is being saved.
+     */
+    @Query(value = "SELECT id FROM resume_jobs WHERE id = :id AND locked_by = :node AND status = 'RUNNING' "
+            + "AND attempts = :attempt FOR UPDATE", nativeQuery = true)
+    List<String> lockOwned(@Param("id") String id, @Param("node") String node, @Param("attempt") int attempt);
+
+    @Modifying
+    @Query("update ResumeJob j set j.status = :running, j.lockedBy = :node, j.leaseExpiresAt = :lease, "
+            + "j.stage = null, j.startedAt = :now, j.attempts = j.attempts + 1 where j.id in :ids")
+    int claim(@Param("ids") Collection<String> ids, @Param("running") ResumeJob.Status running,
+            @Param("node") String node, @Param("lease") LocalDateTime lease, @Param("now") LocalDateTime now);
+
+    /** Heartbeat: extends the leases this node still holds. */
+    @Modifying
+    @Transactional
+    @Query("update ResumeJob j set j.leaseExpiresAt = :lease "
+            + "where j.id in :ids and j.lockedBy = :node and j.status = :running")
+    int renewLeases(@Param("ids") Collection<String> ids, @Param("node") String node,
+            @Param("running") ResumeJob.Status running, @Param("lease") LocalDateTime lease);
+
+    @Modifying
+    @Transactional
+    @Query("update ResumeJob j set j.stage = :stage where j.id = :id and j.lockedBy = :node")
+    int updateStage(@Param("id") String id, @Param("node") String node, @Param("stage") String stage);
+
+    /** Records the outcome; returns 0 when the lease was lost to another node in the meantime. */
+    @Modifying
+    @Query("update ResumeJob j set j.status = :status, j.stage = null, j.lockedBy = null, j.leaseExpiresAt = null, "
+            + "j.resultJson = :resultJson, j.errorMessage = :errorMessage, j.errorStatus = :errorStatus, "
+            + "j.finishedAt = :now where j.id = :id and j.lockedBy = :node and j.attempts = :attempt "
+            + "and j.status = :running")
+    int complete(@Param("id") String id, @Param("node") String node, @Param("attempt") int attempt,
+            @Param("running") ResumeJob.Status running,
+            @Param("status") ResumeJob.Status status, @Param("resultJson") String resultJson,
+            @Param("errorMessage") String errorMessage, @Param("errorStatus") Integer errorStatus,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Gives a running job back to the queue without counting the attempt.
+     * Each requeue is counted in requeues, which the caller caps.
+     */
+    @Modifying
+    @Transactional
+    @Query("update ResumeJob j set j.status = :queued, j.stage = null, j.lockedBy = null, j.leaseExpiresAt = null, "
+            + "j.runAfter = :runAfter, j.attempts = j.attempts - 1, j.requeues = j.requeues + 1 "
+            + "where j.id = :id and j.lockedBy = :node and j.attempts = :attempt and j.status = :running")
+    int requeue(@Param("id") String id, @Param("node") String node, @Param("attempt") int attempt,
+            @Param("running") ResumeJob.Status running, @Param("queued") ResumeJob.Status queued,
+            @Param("runAfter") LocalDateTime runAfter);
+
+    /** Requeues everything a node still holds, used when it shuts down. */
+    @Modifying
+    @Transactional
+    @Query("update ResumeJob j set j.status = :queued, j.stage = null, j.lockedBy = null, j.leaseExpiresAt = null, "
+            + "j.attempts = j.attempts - 1 where j.lockedBy = :node and j.status = :running")
+    int releaseAll(@Param("node") String node, @Param("running") ResumeJob.Status running,
+            @Param("queued") ResumeJob.Status queued);
+
+    /** Fails jobs whose lease expired after the last allowed attempt (e.g. a resume that keeps crashing nodes). */
+    @Modifying
+    @Transactional
+    @Query("update ResumeJob j set j.status = :failed, j.stage = null, j.lockedBy = null, j.leaseExpiresAt = null, "
+            + "j.errorMessage = :message, j.errorStatus = 503, j.finishedAt = :now "
+            + "where j.status = :running and j.leaseExpiresAt < :now and j.attempts >= :maxAttempts")
+    int failAbandoned(@Param("running") ResumeJob.Status running, @Param("failed") ResumeJob.Status failed,
+            @Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts, @Param("message") String message);
+
+    long countByStatus(ResumeJob.Status status);
+
+    @Modifying
+    @Transactional
+    @Query("delete from ResumeJob j where j.finishedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Transactional
+    @Query("delete from ResumeJobFile f where f.jobId not in "
+            + "(select j.id from ResumeJob j where j.status = :queued or j.status = :running)")
+    int deleteOrphanedFiles(@Param("queued") ResumeJob.Status queued, @Param("running") ResumeJob.Status running);
+}
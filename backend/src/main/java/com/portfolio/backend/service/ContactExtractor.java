@@ -0,0 +1,189 @@
+package com.portfolio.backend.service;
+
+import com.portfolio.backend.dto.PortfolioData;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rule-based extraction of contact details (email, phone, LinkedIn, GitHub,
+ * website, location) and a best-guess name. Takes well under a millisecond
+ * per resume (see ContactExtractorBenchmark), so these fields are filled
+ * here instead of by the model, and it is what the degraded-mode response
+ * is built from when the LLM is saturated.
+ */
+@Component
+public class ContactExtractor {
+
+    private static final Pattern EMAIL = Pattern.compile("[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}");
+    private static final Pattern DOMAIN = Pattern.compile(
+            "^[a-z0-9-]+(\\.[a-z0-9-]+)*\\.(com|io|dev|me|net|org|app|co|in|ai|tech|site|xyz|page|info)(/\\S*)?$");
+    private static final Pattern LOCATION = Pattern.compile("^[A-Z][A-Za-z.' ]{1,40},\\s*[A-Z][A-Za-z.' ]{1,40}$");
+    private static final Pattern HEADER_SEPARATOR = Pattern.compile("\\s*[|\\u2022\\u00B7\\u25CF]\\s*|\\s{3,}");
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[\\s|,<>()\\[\\]\\u2022\\u00B7]+");
+    private static final Pattern DIGIT = Pattern.compile("\\d");
+
+    // Contact details and location are expected in the first lines of a resume
+    private static final int HEADER_LINES = 10;
+    private static final int MIN_PHONE_DIGITS = 10;
+    private static final int MAX_PHONE_DIGITS = 15;
+
+    /** Fills the contact fields of the portfolio, using the usual placeholders when nothing is found. */
+    public void fill(PortfolioData portfolio, String text) {
+        String header = header(text);
+        portfolio.setEmail(orDefault(findEmail(text), "email@notprovided.com"));
+        portfolio.setPhone(orDefault(findPhone(text), "Not Provided"));
+        portfolio.setLocation(orDefault(findLocation(header), "Location Not Specified"));
+
+        String linkedin = null;
+        String github = null;
+        boolean githubProfile = false;
+        String website = null;
+        for (String token : TOKEN_SEPARATOR.split(text)) {
+            String url = trimPunctuation(token);
+            String lower = url.toLowerCase(Locale.ROOT);
+            if (url.isEmpty() || lower.contains("@")) {
+                continue;
+            }
+            if (lower.contains("linkedin.com/")) {
+                linkedin = linkedin != null ? linkedin : withScheme(url);
+            } else if (lower.contains("github.com/")) {
+                // Prefer the profile link over repository links
+                if (github == null || (!githubProfile && isProfileLink(lower))) {
+                    github = withScheme(url);
+                    githubProfile = isProfileLink(lower);
+                }
+            } else if (website == null && header.contains(url) && looksLikeUrl(url, lower)) {
+                website = withScheme(url);
+            }
+        }
+        portfolio.setLinkedin(orDefault(linkedin, ""));
+        portfolio.setGithub(orDefault(github, ""));
+        portfolio.setWebsite(orDefault(website, ""));
+    }
+
+    public String findEmail(String text) {
+        Matcher m = EMAIL.matcher(text);
+        return m.find() ? m.group() : null;
+    }
+
+    /**
+     * Scans for runs of digits and phone punctuation ("+", "(", ")", "-", ".",
+     * spaces) holding 10-15 digits, which excludes years and short date
+     * ranges. Runs with two year-like groups of four digits (19xx, 20xx), as
+     * in "2019.01 - 2020.05", are date ranges and skipped as well.
+     */
+    public String findPhone(String text) {
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            char c = text.charAt(i);
+            if (!(c == '+' || c == '(' || isDigit(c))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            int digits = 0;
+            int lastDigit = i;
+            int groupStart = -1;
+            int years = 0;
+            while (i < n) {
+                char d = text.charAt(i);
+                if (isDigit(d)) {
+                    if (groupStart < 0) {
+                        groupStart = i;
+                    }
+                    digits++;
+                    lastDigit = i;
+                } else if (!(d == ' ' || d == '-' || d == '.' || d == '(' || d == ')' || (d == '+' && i == start))) {
+                    break;
+                } else if (groupStart >= 0) {
+                    years += isYear(text, groupStart, i) ? 1 : 0;
+                    groupStart = -1;
+                }
+                i++;
+            }
+            if (groupStart >= 0) {
+                years += isYear(text, groupStart, lastDigit + 1) ? 1 : 0;
+            }
+            boolean attached = start > 0 && Character.isLetterOrDigit(text.charAt(start - 1));
+            if (!attached && years < 2 && digits >= MIN_PHONE_DIGITS && digits <= MAX_PHONE_DIGITS) {
+                return text.substring(start, lastDigit + 1).trim();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isYear(String text, int start, int end) {
+        return end - start == 4 && (text.startsWith("19", start) || text.startsWith("20", start));
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /** Looks for "City, Region" among the header line segments. */
+    public String findLocation(String header) {
+        for (String line : header.split("\n")) {
+            for (String segment : HEADER_SEPARATOR.split(line.trim())) {
+                String candidate = segment.trim();
+                if (LOCATION.matcher(candidate).matches()) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /** First short line without digits or an email: usually the candidate's name. */
+    public String inferName(String text) {
+        for (String line : text.split("\r?\n")) {
+            String trimmed = line.trim();
+            if (trimmed.length() >= 3 && trimmed.length() <= 80 && !trimmed.contains("@")
+                    && !DIGIT.matcher(trimmed).find()) {
+                return trimmed;
+            }
+        }
+        return null;
+    }
+
+    private static String header(String text) {
+        int end = 0;
+        for (int line = 0; line < HEADER_LINES && end >= 0; line++) {
+            end = text.indexOf('\n', end + 1);
+        }
+        return end < 0 ? text : text.substring(0, end);
+    }
+
+    private static boolean looksLikeUrl(String url, String lower) {
+        if (lower.startsWith("http://") || lower.startsWith("https://") || lower.startsWith("www.")) {
+            return true;
+        }
+        // Bare domains; all-caps tokens such as "ASP.NET" are technologies, not sites
+        return DOMAIN.matcher(lower).matches() && !url.equals(url.toUpperCase(Locale.ROOT));
+    }
+
+    private static boolean isProfileLink(String lower) {
+        String path = lower.split("github\\.com/", 2)[1];
+        return !path.isEmpty() && !path.contains("/");
+    }
+
+    private static String withScheme(String url) {
+        String lower = url.toLowerCase(Locale.ROOT);
+        return lower.startsWith("http://") || lower.startsWith("https://") ? url : "https://" + url;
+    }
+
+    private static String trimPunctuation(String token) {
+        int end = token.length();
+        while (end > 0 && ".,;:!?'\"".indexOf(token.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return token.substring(0, end);
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value != null && !value.isBlank() ? value : fallback;
+    }
+}
@@ -0,0 +1,22 @@
+package com.portfolio.backend.service;
+
+/**
+ * Thrown when the text of an upload cannot be extracted within the limits of
+ * DocumentParserService. The reason (timeout, max-chars, zip-bomb, unreadable
+ * or busy) is also the tag of the resume.extract.aborted counter.
+ */
+public class DocumentExtractionException extends ResumeRejectedException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String reason;
+
+    public DocumentExtractionException(int status, String reason, String message) {
+        super(status, message);
+        this.reason = reason;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,92 @@
+package com.portfolio.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Resume file formats told apart by their first bytes rather than by the
+ * content type the client sent, so a mislabeled upload still reaches the
+ * extractor for its format.
+ */
+public enum DocumentFormat {
+
+    PDF, DOCX, DOC, RTF, TEXT, OTHER;
+
+    /** Bytes examined; a PDF header may follow up to 1 KB of leading garbage. */
+    public static final int SNIFF_BYTES = 1024;
+
+    private static final byte[] PDF_MAGIC = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ZIP_MAGIC = { 'P', 'K', 3, 4 };
+    private static final byte[] OLE2_MAGIC = { (byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0,
+            (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1 };
+    private static final byte[] RTF_MAGIC = "{\\rtf".getBytes(StandardCharsets.US_ASCII);
+    // Entry names that mark a ZIP as an OOXML package (DOCX and the other Office formats)
+    private static final byte[] OOXML_CONTENT_TYPES = "[Content_Types].xml".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] OOXML_WORD_PART = "word/".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Detects the format of a stream that supports mark/reset, leaving it at
+     * its start. A ZIP is taken for a DOCX when one of the entry names in its
+     * first bytes is [Content_Types].xml or lies under word/ (the OOXML parser
+     * also reads the other Office formats); other ZIPs such as ODT, markup and
+     * unknown binaries are OTHER and left to Tika's auto-detection.
+     */
+    public static DocumentFormat sniff(InputStream in) throws IOException {
+        in.mark(SNIFF_BYTES);
+        byte[] head = in.readNBytes(SNIFF_BYTES);
+        in.reset();
+        if (indexOf(head, PDF_MAGIC) >= 0) {
+            return PDF;
+        }
+        if (startsWith(head, ZIP_MAGIC)) {
+            return indexOf(head, OOXML_CONTENT_TYPES) >= 0 || indexOf(head, OOXML_WORD_PART) >= 0 ? DOCX : OTHER;
+        }
+        if (startsWith(head, OLE2_MAGIC)) {
+            return DOC;
+        }
+        if (startsWith(head, RTF_MAGIC)) {
+            return RTF;
+        }
+        return isPlainText(head) ? TEXT : OTHER;
+    }
+
+    /** No NUL or control bytes besides whitespace, and not markup. */
+    private static boolean isPlainText(byte[] head) {
+        if (head.length == 0) {
+            return false;
+        }
+        for (byte b : head) {
+            if (b == 0 || (b > 0 && b < 0x20 && b != '\n' && b != '\r' && b != '\t' && b != '\f')) {
+                return false;
+            }
+        }
+        String start = new String(head, 0, Math.min(head.length, 64), StandardCharsets.ISO_8859_1).trim();
+        return !start.startsWith("<");
+    }
+
+    private static boolean startsWith(byte[] data, byte[] prefix) {
+        if (data.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern) {
+        outer:
+        for (int i = 0; i + pattern.length <= data.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
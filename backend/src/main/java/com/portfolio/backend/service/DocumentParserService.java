@@ -1,60 +1,601 @@
 package com.portfolio.backend.service;
 
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.text.PDFTextStripper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.tika.Tika;
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.apache.tika.parser.microsoft.OfficeParser;
+import org.apache.tika.parser.microsoft.ooxml.OOXMLParser;
+import org.apache.tika.parser.microsoft.rtf.RTFParser;
+import org.apache.tika.parser.txt.TXTParser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.apache.tika.sax.SecureContentHandler;
+import org.apache.tika.sax.WriteOutContentHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.SAXException;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterWriter;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
+/**
+ * Text extraction from uploaded resumes. The text is written to a Writer as
+ * it is extracted (page by page for PDFs) instead of being built up in
+ * memory, and uploads are read as streams, so a large file is never held as
+ * one byte array. Uploads staged by PortfolioService.stageUpload() are read
+ * from the staged file itself. PDFBox keeps at most
+ * resume.extract.pdf.max-memory-bytes of the document on the heap and spills
+ * the rest to scratch files.
+ *
+ * PDFs of at least resume.extract.pdf.parallel-min-pages pages are split into
+ * page ranges that are extracted concurrently, each from its own PDDocument
+ * (PDFBox documents are not thread-safe), and written out in page order.
+ *
+ * The format is sniffed from the first bytes (see DocumentFormat), not taken
+ * from the client's content type, and each format goes straight to its own
+ * parser; only unrecognized files pay for Tika's auto-detection. Tika
+ * parsers are stateless and thread-safe, so one instance per format is
+ * shared by all requests. All of them are loaded and run once on small
+ * samples at startup, so the first upload of each format does not pay for
+ * class loading and the parser registry.
+ *
+ * Uploads are extracted on the bounded documentExecutor pool, with a
+ * wall-clock timeout (the extraction is interrupted and its output cut off
+ * when it expires), a cap on the extracted characters and Tika's zip bomb
+ * check. A document that hits a limit is rejected with a
+ * DocumentExtractionException naming the limit, and counted in
+ * resume.extract.aborted.
+ */
 @Service
-public class DocumentParserService {
+public class DocumentParserService implements ApplicationRunner {
 
     private final Tika tika = new Tika();
+    private final Map<DocumentFormat, Parser> parsers = new EnumMap<>(DocumentFormat.class);
+    private final StageMetrics stageMetrics;
+    private final ExecutorService extractionExecutor;
+    private final ExecutorService documentExecutor;
+    private final MeterRegistry meterRegistry;
+
+    // Heap budget of PDFBox per document; the rest is buffered in scratch files (-1 = unlimited)
+    @Value("${resume.extract.pdf.max-memory-bytes:4194304}")
+    private long pdfMaxMemoryBytes;
+
+    // Directory for the PDFBox scratch files (empty = java.io.tmpdir)
+    @Value("${resume.extract.temp-dir:}")
+    private String tempDir;
+
+    // Page count from which a PDF is extracted in parallel page ranges (0 = never)
+    @Value("${resume.extract.pdf.parallel-min-pages:20}")
+    private int parallelMinPages;
+
+    // Smallest page range handed to one extraction thread
+    @Value("${resume.extract.pdf.min-pages-per-chunk:5}")
+    private int minPagesPerChunk;
+
+    @Value("${resume.extract.pdf.threads:4}")
+    private int extractionThreads;
+
+    @Value("${resume.extract.warmup:true}")
+    private boolean warmup;
+
+    // Wall-clock limit of one document's extraction, including the wait for a pool thread
+    @Value("${resume.extract.timeout-ms:30000}")
+    private long timeoutMs;
+
+    // Documents with more extracted text than this are rejected
+    @Value("${resume.extract.max-chars:200000}")
+    private long maxChars;
+
+    public DocumentParserService(StageMetrics stageMetrics, MeterRegistry meterRegistry,
+            @Qualifier("extractionExecutor") ExecutorService extractionExecutor,
+            @Qualifier("documentExecutor") ExecutorService documentExecutor) {
+        this.stageMetrics = stageMetrics;
+        this.meterRegistry = meterRegistry;
+        this.extractionExecutor = extractionExecutor;
+        this.documentExecutor = documentExecutor;
+        parsers.put(DocumentFormat.DOCX, new OOXMLParser());
+        parsers.put(DocumentFormat.DOC, new OfficeParser());
+        parsers.put(DocumentFormat.RTF, new RTFParser());
+        parsers.put(DocumentFormat.TEXT, new TXTParser());
+        parsers.put(DocumentFormat.OTHER, tika.getParser());
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (warmup) {
+            warmUp();
+        }
+    }
+
+    /** Runs every format's extractor once on a small in-memory sample. */
+    void warmUp() {
+        long start = System.currentTimeMillis();
+        for (DocumentFormat format : DocumentFormat.values()) {
+            // No small legacy Word sample; its parser was loaded with the others
+            if (format == DocumentFormat.DOC) {
+                continue;
+            }
+            try {
+                extract(new ByteArrayInputStream(sample(format)), format, Writer.nullWriter());
+            } catch (Exception e) {
+                System.err.println("Could not warm up " + format + " extraction: " + e.getMessage());
+            }
+        }
+        System.out.println("Document parsers warmed up in " + (System.currentTimeMillis() - start) + " ms");
+    }
 
     public String extractText(MultipartFile file) {
+        StringWriter text = new StringWriter();
+        extractText(file, text);
+        System.out.println("Extracted " + text.getBuffer().length() + " characters from file: "
+                + file.getOriginalFilename());
+        return text.toString();
+    }
+
+    /**
+     * Writes the text of the upload to out. The upload is read from the
+     * container's copy (on disk above spring.servlet.multipart.file-size-threshold)
+     * as a stream.
+     */
+    public void extractText(MultipartFile file, Writer out) {
+        extractWithLimits(file.getOriginalFilename(), out, limited -> {
+            if (file instanceof StagedResumeFile staged) {
+                extractText(staged.getPath(), file.getContentType(), limited);
+                return;
+            }
+            try (InputStream inputStream = file.getInputStream()) {
+                extractText(inputStream, file.getContentType(), limited);
+            }
+        });
+    }
+
+    public String extractTextFromBytes(byte[] fileBytes, String mimeType) {
+        StringWriter text = new StringWriter();
+        extractWithLimits("byte array", text,
+                limited -> extractText(new ByteArrayInputStream(fileBytes), mimeType, limited));
+        System.out.println("Extracted " + text.getBuffer().length() + " characters from byte array");
+        return text.toString();
+    }
+
+    private interface Extraction {
+        void run(Writer out) throws Exception;
+    }
+
+    /**
+     * Runs the extraction on the document pool and waits at most the timeout
+     * for it. On timeout the task is interrupted and its writer closed, so a
+     * parser that ignores the interrupt fails on its next write.
+     */
+    private void extractWithLimits(String name, Writer out, Extraction extraction) {
+        LimitedWriter limited = new LimitedWriter(out, maxChars);
+        Future<?> task;
         try {
-            // If it's a PDF, use PDFBox for pure text extraction (ignores images)
-            if (file.getContentType() != null && file.getContentType().contains("pdf")) {
-                return extractPDFText(file.getInputStream());
+            task = documentExecutor.submit(RequestTrace.wrap(() -> {
+                extraction.run(limited);
+                return null;
+            }));
+        } catch (RejectedExecutionException e) {
+            throw abort("busy", 503, name, "The server is busy reading other documents. Please try again shortly.");
+        }
+        try {
+            task.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            limited.abort();
+            task.cancel(true);
+            String limit = timeoutMs % 1000 == 0 ? timeoutMs / 1000 + " seconds" : timeoutMs + " ms";
+            throw abort("timeout", 422, name, "Reading the document took longer than " + limit
+                    + ". It may be damaged or unusually complex; please export it again as a PDF.");
+        } catch (InterruptedException e) {
+            limited.abort();
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while extracting text from document", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (hasCause(cause, CharacterLimitException.class)) {
+                throw abort("max-chars", 413, name, "The document contains more than " + maxChars
+                        + " characters of text, which is more than a resume should have.");
             }
+            if (isZipBomb(cause)) {
+                throw abort("zip-bomb", 422, name,
+                        "The document expands to far more data than its file size and was not read.");
+            }
+            System.err.println("Error extracting text from " + name + ": " + cause.getMessage());
+            throw abort("unreadable", 422, name,
+                    "The document could not be read. It may be damaged, password-protected or not a supported format.");
+        }
+    }
 
-            // For other formats, use Tika
-            try (InputStream inputStream = file.getInputStream()) {
-                String text = tika.parseToString(inputStream);
-                System.out
-                        .println("Extracted " + text.length() + " characters from file: " + file.getOriginalFilename());
-                return text;
+    private DocumentExtractionException abort(String reason, int status, String name, String message) {
+        System.out.println("Extraction of " + name + " aborted (" + reason + ")");
+        Counter.builder("resume.extract.aborted")
+                .description("Documents whose extraction was aborted, by limit")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        return new DocumentExtractionException(status, reason, message);
+    }
+
+    /** Parsers wrap what the writer throws in SAX and Tika exceptions, so the whole chain is searched. */
+    private static boolean hasCause(Throwable e, Class<? extends Throwable> type) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (type.isInstance(t)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Reported by Tika's SecureContentHandler and POI's ZipSecureFile. */
+    private static boolean isZipBomb(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().toLowerCase().contains("zip bomb")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the text of the document read from inputStream to out; does not
+     * close the stream. mimeType is only compared with the sniffed format.
+     */
+    public void extractText(InputStream inputStream, String mimeType, Writer out) throws Exception {
+        InputStream in = inputStream.markSupported() ? inputStream
+                : new BufferedInputStream(inputStream, DocumentFormat.SNIFF_BYTES);
+        DocumentFormat format = DocumentFormat.sniff(in);
+        extractTimed(format, mimeType, () -> extract(in, format, out));
+    }
+
+    /**
+     * Writes the text of the stored file to out. The format is sniffed from
+     * the first SNIFF_BYTES of the file; PDFs are then opened in place, the
+     * Office formats read as files by Tika and the other formats streamed from
+     * the file (Tika closes each stream). Nothing is mapped or left open once
+     * this returns, so the caller can move or delete the file straight away.
+     */
+    public void extractText(Path file, String mimeType, Writer out) throws Exception {
+        DocumentFormat format;
+        try (InputStream head = new BufferedInputStream(Files.newInputStream(file), DocumentFormat.SNIFF_BYTES)) {
+            format = DocumentFormat.sniff(head);
+        }
+        extractTimed(format, mimeType, () -> {
+            switch (format) {
+                case PDF -> extractPDFFile(file, out);
+                case DOCX, DOC -> extractTikaText(TikaInputStream.get(file), parsers.get(format), out);
+                default -> extractTikaText(new BufferedInputStream(Files.newInputStream(file)), parsers.get(format), out);
+            }
+        });
+    }
+
+    private interface ExtractionStep {
+        void run() throws Exception;
+    }
+
+    private void extractTimed(DocumentFormat format, String mimeType, ExtractionStep step) throws Exception {
+        if (mimeType != null && mimeType.contains("pdf") != (format == DocumentFormat.PDF)) {
+            System.out.println("Content type " + mimeType + " does not match the file, extracting it as " + format);
+        }
+        long start = System.nanoTime();
+        try {
+            step.run();
+        } finally {
+            stageMetrics.record(switch (format) {
+                case PDF -> "extract.pdfbox";
+                case OTHER -> "extract.tika";
+                default -> "extract." + format.name().toLowerCase();
+            }, start);
+        }
+    }
+
+    private void extract(InputStream in, DocumentFormat format, Writer out) throws Exception {
+        // PDFs go to PDFBox for pure text extraction (ignores images)
+        if (format == DocumentFormat.PDF) {
+            extractPDFText(in, out);
+        } else {
+            extractTikaText(in, parsers.get(format), out);
+        }
+    }
+
+    private void extractPDFText(InputStream inputStream, Writer out) throws Exception {
+        // Spooled to a file so that every extraction thread can open the document
+        Path pdf = tempDir.isEmpty()
+                ? Files.createTempFile("resume-", ".pdf")
+                : Files.createTempFile(Path.of(tempDir), "resume-", ".pdf");
+        try {
+            Files.copy(inputStream, pdf, StandardCopyOption.REPLACE_EXISTING);
+            extractPDFFile(pdf, out);
+        } finally {
+            Files.deleteIfExists(pdf);
+        }
+    }
+
+    private void extractPDFFile(Path pdf, Writer out) throws Exception {
+        int pages;
+        int chunks;
+        try (PDDocument document = PDDocument.load(pdf.toFile(), memoryUsageSetting())) {
+            pages = document.getNumberOfPages();
+            chunks = parallelMinPages > 0 && pages >= parallelMinPages
+                    ? Math.min(extractionThreads, pages / Math.max(1, minPagesPerChunk))
+                    : 1;
+            if (chunks <= 1) {
+                // One page at a time, so the text is handed on as soon as each page is done
+                PDFTextStripper stripper = new PDFTextStripper();
+                for (int page = 1; page <= pages; page++) {
+                    stripper.setStartPage(page);
+                    stripper.setEndPage(page);
+                    stripper.writeText(document, out);
+                    out.flush();
+                }
             }
-        } catch (Exception e) {
-            System.err.println("Error extracting text from file: " + e.getMessage());
-            throw new RuntimeException("Failed to extract text from document", e);
         }
+        // Opened again per range only after the document above is closed, so
+        // the copies together stay within pdf.max-memory-bytes
+        if (chunks > 1) {
+            extractPagesInParallel(pdf, pages, chunks, out);
+        }
+        System.out.println("Extracted " + pages + " pages from PDF using PDFBox"
+                + (chunks > 1 ? " in " + chunks + " parallel ranges" : ""));
     }
 
-    private String extractPDFText(InputStream inputStream) throws Exception {
-        try (PDDocument document = PDDocument.load(inputStream)) {
+    /**
+     * Splits the pages into ranges of about equal size, each extracted from
+     * its own copy of the document with an equal part of the PDFBox memory
+     * budget: the first on this thread, the others on the extraction pool.
+     * Ranges are written in order as they become available. The ranges
+     * buffer their text until it is their turn, so together they may hold at
+     * most resume.extract.max-chars characters; the range that goes over
+     * fails the document right away instead of after it is finished.
+     */
+    private void extractPagesInParallel(Path pdf, int pages, int chunks, Writer out) throws Exception {
+        MemoryUsageSetting chunkMemory = memoryUsageSetting().getPartitionedCopy(chunks);
+        AtomicLong buffered = new AtomicLong();
+        int[][] pageRanges = pageRanges(pages, chunks);
+        List<Future<String>> ranges = new ArrayList<>(chunks);
+        try {
+            for (int chunk = 1; chunk < chunks; chunk++) {
+                int[] range = pageRanges[chunk];
+                ranges.add(submitRange(() -> extractRange(pdf, chunkMemory, range[0], range[1], buffered)));
+            }
+            out.write(extractRange(pdf, chunkMemory, pageRanges[0][0], pageRanges[0][1], buffered));
+            out.flush();
+            for (Future<String> range : ranges) {
+                out.write(awaitRange(range));
+                out.flush();
+            }
+        } finally {
+            // No-op for finished ranges; stops the rest when extraction failed
+            ranges.forEach(range -> range.cancel(true));
+        }
+    }
+
+    private String extractRange(Path pdf, MemoryUsageSetting memory, int firstPage, int lastPage,
+            AtomicLong buffered) throws Exception {
+        try (PDDocument document = PDDocument.load(pdf.toFile(), memory)) {
             PDFTextStripper stripper = new PDFTextStripper();
-            String text = stripper.getText(document);
-            System.out.println("Extracted " + text.length() + " characters from PDF using PDFBox");
-            return text;
+            stripper.setStartPage(firstPage);
+            stripper.setEndPage(lastPage);
+            StringWriter text = new StringWriter();
+            stripper.writeText(document, new LimitedWriter(text, maxChars, buffered));
+            return text.toString();
         }
     }
 
-    public String extractTextFromBytes(byte[] fileBytes, String mimeType) {
+    /** Page ranges of about equal size, as {firstPage, lastPage} pairs (1-based, inclusive). */
+    static int[][] pageRanges(int pages, int chunks) {
+        int[][] ranges = new int[chunks][];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            ranges[chunk] = new int[] { pages * chunk / chunks + 1, pages * (chunk + 1) / chunks };
+        }
+        return ranges;
+    }
+
+    private Future<String> submitRange(Callable<String> range) {
+        try {
+            return extractionExecutor.submit(range);
+        } catch (RejectedExecutionException e) {
+            // Pool saturated: extract this range on the calling thread
+            FutureTask<String> inline = new FutureTask<>(range);
+            inline.run();
+            return inline;
+        }
+    }
+
+    private static String awaitRange(Future<String> range) throws Exception {
         try {
-            // If it's a PDF, use PDFBox for pure text extraction
-            if (mimeType != null && mimeType.contains("pdf")) {
-                return extractPDFText(new java.io.ByteArrayInputStream(fileBytes));
+            return range.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    private void extractTikaText(InputStream inputStream, Parser parser, Writer out) throws Exception {
+        ParseContext context = new ParseContext();
+        context.set(Parser.class, tika.getParser());
+        // The length is capped by the LimitedWriter; SecureContentHandler rejects zip bombs
+        try (TikaInputStream tikaStream = TikaInputStream.get(inputStream)) {
+            SecureContentHandler handler = new SecureContentHandler(
+                    new BodyContentHandler(new WriteOutContentHandler(out, -1)), tikaStream);
+            try {
+                parser.parse(tikaStream, handler, new Metadata(), context);
+            } catch (SAXException e) {
+                handler.throwIfCauseOf(e);
+                throw e;
             }
+        } finally {
+            out.flush();
+        }
+    }
+
+    private MemoryUsageSetting memoryUsageSetting() {
+        MemoryUsageSetting setting = pdfMaxMemoryBytes < 0
+                ? MemoryUsageSetting.setupMainMemoryOnly()
+                : MemoryUsageSetting.setupMixed(pdfMaxMemoryBytes);
+        if (!tempDir.isEmpty()) {
+            setting.setTempDir(new File(tempDir));
+        }
+        return setting;
+    }
 
-            String text = tika.parseToString(new java.io.ByteArrayInputStream(fileBytes));
-            System.out.println("Extracted " + text.length() + " characters from byte array");
-            return text;
-        } catch (Exception e) {
-            System.err.println("Error extracting text from bytes: " + e.getMessage());
-            throw new RuntimeException("Failed to extract text from document", e);
+    /** Smallest document of each format that runs the parser's full path. */
+    static byte[] sample(DocumentFormat format) throws Exception {
+        String text = "Resume";
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        switch (format) {
+            case PDF -> {
+                try (PDDocument document = new PDDocument()) {
+                    PDPage page = new PDPage();
+                    document.addPage(page);
+                    try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                        content.beginText();
+                        content.setFont(PDType1Font.HELVETICA, 12);
+                        content.showText(text);
+                        content.endText();
+                    }
+                    document.save(bytes);
+                }
+            }
+            case DOCX -> {
+                String ooxml = "http://schemas.openxmlformats.org/";
+                try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+                    zipEntry(zip, "[Content_Types].xml",
+                            "<Types xmlns=\"" + ooxml + "package/2006/content-types\">"
+                                    + "<Default Extension=\"rels\""
+                                    + " ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                                    + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                                    + "<Override PartName=\"/word/document.xml\" ContentType=\"application/"
+                                    + "vnd.openxmlformats-officedocument.wordprocessingml.document.main+xml\"/>"
+                                    + "</Types>");
+                    zipEntry(zip, "_rels/.rels",
+                            "<Relationships xmlns=\"" + ooxml + "package/2006/relationships\">"
+                                    + "<Relationship Id=\"rId1\" Target=\"word/document.xml\""
+                                    + " Type=\"" + ooxml + "officeDocument/2006/relationships/officeDocument\"/>"
+                                    + "</Relationships>");
+                    zipEntry(zip, "word/document.xml",
+                            "<w:document xmlns:w=\"" + ooxml + "wordprocessingml/2006/main\">"
+                                    + "<w:body><w:p><w:r><w:t>" + text + "</w:t></w:r></w:p></w:body></w:document>");
+                }
+            }
+            case RTF -> bytes.writeBytes(("{\\rtf1\\ansi " + text + "}").getBytes(StandardCharsets.US_ASCII));
+            case OTHER -> bytes.writeBytes(("<html><body><p>" + text + "</p></body></html>")
+                    .getBytes(StandardCharsets.UTF_8));
+            default -> bytes.writeBytes(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void zipEntry(ZipOutputStream zip, String name, String content) throws Exception {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static final class CharacterLimitException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        CharacterLimitException() {
+            super("Extracted text exceeds the character limit");
+        }
+    }
+
+    /**
+     * Counts the characters written through it and fails once they exceed the
+     * limit, or once the extraction was aborted or its thread interrupted.
+     */
+    private static final class LimitedWriter extends FilterWriter {
+
+        private final long maxChars;
+        private final AtomicLong written;
+        private volatile boolean aborted;
+
+        LimitedWriter(Writer out, long maxChars) {
+            this(out, maxChars, new AtomicLong());
+        }
+
+        /** Counts against written, which writers running in parallel may share. */
+        LimitedWriter(Writer out, long maxChars, AtomicLong written) {
+            super(out);
+            this.maxChars = maxChars;
+            this.written = written;
+        }
+
+        void abort() {
+            aborted = true;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            count(1);
+            super.write(c);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            count(len);
+            super.write(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            count(len);
+            super.write(str, off, len);
+        }
+
+        @Override
+        public void close() {
+            // The caller owns the underlying writer
+        }
+
+        private void count(int len) throws IOException {
+            if (aborted || Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Extraction aborted");
+            }
+            if (written.addAndGet(len) > maxChars && maxChars > 0) {
+                throw new CharacterLimitException();
+            }
         }
     }
 }
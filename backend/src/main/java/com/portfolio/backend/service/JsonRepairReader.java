@@ -0,0 +1,160 @@
+package com.portfolio.backend.service;
+
+import java.io.Reader;
+
+/**
+ * Single-pass, streaming clean-up of model output in front of Jackson.
+ *
+ * Skips anything before the first '{' (markdown fences, chatter), stops after
+ * the matching '}' and quotes bare numeric ranges such as {@code 70-90}
+ * (which are not valid JSON), so they reach the DTOs like their quoted form.
+ * Quoted quirks ("80%", "70-90") are resolved by the DTO deserializers.
+ * Nothing is buffered beyond the current number token, so Jackson
+ * deserializes straight from the original text.
+ */
+public class JsonRepairReader extends Reader {
+
+    private final CharSequence source;
+    private int pos;
+
+    private final StringBuilder pending = new StringBuilder(16);
+    private int pendingPos;
+
+    private boolean started;
+    private boolean finished;
+    private boolean inString;
+    private boolean escape;
+    private int depth;
+
+    public JsonRepairReader(CharSequence source) {
+        this.source = source;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        int written = 0;
+        while (written < len) {
+            if (pendingPos < pending.length()) {
+                cbuf[off + written++] = pending.charAt(pendingPos++);
+                continue;
+            }
+            if (!advance()) {
+                break;
+            }
+        }
+        return written == 0 ? -1 : written;
+    }
+
+    /** Produces the next output character(s) into pending. Returns false at end of input. */
+    private boolean advance() {
+        pending.setLength(0);
+        pendingPos = 0;
+        if (finished) {
+            return false;
+        }
+
+        while (!started) {
+            if (pos >= source.length()) {
+                finished = true;
+                return false;
+            }
+            if (source.charAt(pos++) == '{') {
+                started = true;
+                depth = 1;
+                pending.append('{');
+                return true;
+            }
+        }
+
+        if (pos >= source.length()) {
+            finished = true;
+            return false;
+        }
+
+        char c = source.charAt(pos);
+        if (inString) {
+            pos++;
+            if (escape) {
+                escape = false;
+            } else if (c == '\\') {
+                escape = true;
+            } else if (c == '"') {
+                inString = false;
+            }
+            pending.append(c);
+            return true;
+        }
+
+        if (isDigit(c) || (c == '-' && pos + 1 < source.length() && isDigit(source.charAt(pos + 1)))) {
+            emitNumberOrRange();
+            return true;
+        }
+
+        pos++;
+        switch (c) {
+            case '"' -> inString = true;
+            case '{', '[' -> depth++;
+            case '}', ']' -> {
+                depth--;
+                if (depth == 0) {
+                    finished = true;
+                }
+            }
+            default -> {
+            }
+        }
+        pending.append(c);
+        return true;
+    }
+
+    private void emitNumberOrRange() {
+        int start = pos;
+        int end = scanNumber(pos);
+
+        // Look for "<number> - <number>" (hyphen or en dash) outside a string
+        int look = skipWhitespace(end);
+        if (look < source.length() && (source.charAt(look) == '-' || source.charAt(look) == '–')) {
+            int secondStart = skipWhitespace(look + 1);
+            if (secondStart < source.length() && isDigit(source.charAt(secondStart))) {
+                int secondEnd = scanNumber(secondStart);
+                pending.append('"').append(source, start, secondEnd).append('"');
+                pos = secondEnd;
+                return;
+            }
+        }
+
+        pending.append(source, start, end);
+        pos = end;
+    }
+
+    private int scanNumber(int from) {
+        int i = from;
+        if (i < source.length() && source.charAt(i) == '-') {
+            i++;
+        }
+        while (i < source.length() && (isDigit(source.charAt(i)) || source.charAt(i) == '.')) {
+            i++;
+        }
+        return i;
+    }
+
+    private int skipWhitespace(int from) {
+        int i = from;
+        while (i < source.length() && Character.isWhitespace(source.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+    }
+}
@@ -0,0 +1,82 @@
+package com.portfolio.backend.service;
+
+/**
+ * Per-request settings threaded from the controller through OllamaService:
+ * who the work is for, how it should be scheduled, whether the result
+ * cache may be used and by when the request must be answered. The deadline
+ * bounds the queue wait and the model calls; a call that would start with
+ * too little time left is skipped and the caller uses its fallback. Work
+ * that would replace a saved result (re-analysis) has no fallback and fails
+ * instead.
+ */
+public class LlmCallContext {
+
+    private final LlmPriority priority;
+    private final String userKey;
+    private final boolean bypassCache;
+    private final long deadlineAt;
+    private final boolean fallbackAllowed;
+
+    public LlmCallContext(LlmPriority priority, String userKey, boolean bypassCache) {
+        this(priority, userKey, bypassCache, 0);
+    }
+
+    /** budgetMs is the time the request has from now; 0 or less means no deadline. */
+    public LlmCallContext(LlmPriority priority, String userKey, boolean bypassCache, long budgetMs) {
+        this.priority = priority != null ? priority : LlmPriority.INTERACTIVE;
+        this.userKey = userKey != null && !userKey.isBlank() ? userKey.trim().toLowerCase() : "anonymous";
+        this.bypassCache = bypassCache;
+        this.deadlineAt = budgetMs > 0 ? System.currentTimeMillis() + budgetMs : 0;
+        this.fallbackAllowed = true;
+    }
+
+    private LlmCallContext(LlmCallContext other, boolean fallbackAllowed) {
+        this.priority = other.priority;
+        this.userKey = other.userKey;
+        this.bypassCache = other.bypassCache;
+        this.deadlineAt = other.deadlineAt;
+        this.fallbackAllowed = fallbackAllowed;
+    }
+
+    /**
+     * Same context, but a model that is unavailable or out of time fails the
+     * call (OllamaUnavailableException, LlmDeadlineExceededException) instead
+     * of producing the basic portfolio or the fallback analysis.
+     */
+    public LlmCallContext withoutFallback() {
+        return new LlmCallContext(this, false);
+    }
+
+    public static LlmCallContext interactive(String userKey) {
+        return new LlmCallContext(LlmPriority.INTERACTIVE, userKey, false);
+    }
+
+    public LlmPriority getPriority() {
+        return priority;
+    }
+
+    public String getUserKey() {
+        return userKey;
+    }
+
+    public boolean isBypassCache() {
+        return bypassCache;
+    }
+
+    public boolean isFallbackAllowed() {
+        return fallbackAllowed;
+    }
+
+    public boolean hasDeadline() {
+        return deadlineAt > 0;
+    }
+
+    /** Milliseconds left until the deadline (negative once passed), or Long.MAX_VALUE without one. */
+    public long remainingMs() {
+        return deadlineAt > 0 ? deadlineAt - System.currentTimeMillis() : Long.MAX_VALUE;
+    }
+
+    public boolean isExpired() {
+        return deadlineAt > 0 && System.currentTimeMillis() >= deadlineAt;
+    }
+}
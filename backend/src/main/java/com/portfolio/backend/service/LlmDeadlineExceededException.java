@@ -0,0 +1,15 @@
+package com.portfolio.backend.service;
+
+/**
+ * Thrown when the request's deadline (LlmCallContext) leaves too little time
+ * for a model call, or ran out while the call was queued or running. The
+ * parse and analysis calls answer it with their fallback results.
+ */
+public class LlmDeadlineExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LlmDeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.portfolio.backend.service;
+
+/**
+ * Scheduling class of a model call. Interactive work (a user waiting on an
+ * upload) is always dispatched before batch work (re-analysis, bulk imports).
+ */
+public enum LlmPriority {
+    INTERACTIVE,
+    BATCH
+}
@@ -0,0 +1,21 @@
+package com.portfolio.backend.service;
+
+/**
+ * Thrown when the LLM work scheduler cannot admit or dispatch a call in time.
+ * Controllers map it to 429 with a Retry-After header.
+ */
+public class LlmQueueFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public LlmQueueFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,220 @@
+package com.portfolio.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.backend.entity.LlmResultCacheEntry;
+import com.portfolio.backend.repository.LlmResultCacheRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier cache of model results keyed by a hash of the normalized resume
+ * text, the model name and the prompt version. Entries are kept as JSON so
+ * callers always get a fresh object they are free to mutate. Database rows
+ * and memory entries older than ollama.cache.ttl-hours are ignored, and
+ * expired rows are purged every hour.
+ */
+@Service
+public class LlmResultCache {
+
+    private record Cached(String json, LocalDateTime createdAt) {
+    }
+
+    private final LlmResultCacheRepository repository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Cached> memory;
+    private final ScheduledExecutorService purger;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong databaseHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bypasses = new AtomicLong();
+    private final AtomicLong purged = new AtomicLong();
+    private Clock clock = Clock.systemDefaultZone();
+
+    @Value("${ollama.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ollama.cache.persistent:true}")
+    private boolean persistent;
+
+    @Value("${ollama.cache.ttl-hours:168}")
+    private long ttlHours;
+
+    public LlmResultCache(LlmResultCacheRepository repository,
+            @Value("${ollama.cache.max-entries:500}") int maxEntries) {
+        this.repository = repository;
+        // Access-ordered LinkedHashMap gives LRU eviction once maxEntries is reached
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.purger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "llm-result-cache-purger");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled && persistent && ttlHours > 0) {
+            purger.scheduleWithFixedDelay(this::purgeExpired, 5, 60, TimeUnit.MINUTES);
+        }
+    }
+
+    /** Deletes database entries older than the TTL; returns how many were removed. */
+    int purgeExpired() {
+        try {
+            int deleted = repository.deleteCreatedBefore(LocalDateTime.now(clock).minusHours(ttlHours));
+            purged.addAndGet(deleted);
+            return deleted;
+        } catch (Exception e) {
+            System.err.println("Could not purge expired LLM result cache entries: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    public String key(String kind, String model, String promptVersion, String resumeText) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((kind + '\n' + model + '\n' + promptVersion + '\n').getBytes(StandardCharsets.UTF_8));
+            digest.update(normalize(resumeText).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public <T> Optional<T> get(String key, Class<T> type, boolean bypass) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        if (bypass) {
+            bypasses.incrementAndGet();
+            return Optional.empty();
+        }
+        try {
+            Cached cached;
+            synchronized (memory) {
+                cached = memory.get(key);
+                if (cached != null && isExpired(cached.createdAt())) {
+                    memory.remove(key);
+                    cached = null;
+                }
+            }
+            if (cached != null) {
+                memoryHits.incrementAndGet();
+                return Optional.of(objectMapper.readValue(cached.json(), type));
+            }
+            if (persistent) {
+                Optional<LlmResultCacheEntry> entry = repository.findById(key);
+                if (entry.isPresent() && !isExpired(entry.get().getCreatedAt())) {
+                    String json = entry.get().getPayloadJson();
+                    synchronized (memory) {
+                        memory.put(key, new Cached(json, entry.get().getCreatedAt()));
+                    }
+                    databaseHits.incrementAndGet();
+                    return Optional.of(objectMapper.readValue(json, type));
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("LLM result cache lookup failed: " + e.getMessage());
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    public void put(String key, String kind, String model, String promptVersion, Object value) {
+        if (!enabled || value == null) {
+            return;
+        }
+        try {
+            String json = objectMapper.writeValueAsString(value);
+            LocalDateTime now = LocalDateTime.now(clock);
+            synchronized (memory) {
+                memory.put(key, new Cached(json, now));
+            }
+            if (persistent) {
+                LlmResultCacheEntry entry = new LlmResultCacheEntry();
+                entry.setCacheKey(key);
+                entry.setKind(kind);
+                entry.setModel(model);
+                entry.setPromptVersion(promptVersion);
+                entry.setPayloadJson(json);
+                // Set here rather than by @PrePersist, which does not run when save() merges over an existing key
+                entry.setCreatedAt(now);
+                repository.save(entry);
+            }
+        } catch (Exception e) {
+            System.err.println("LLM result cache store failed: " + e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        int size;
+        synchronized (memory) {
+            size = memory.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("memoryEntries", size);
+        stats.put("memoryHits", memoryHits.get());
+        stats.put("databaseHits", databaseHits.get());
+        stats.put("misses", misses.get());
+        stats.put("bypasses", bypasses.get());
+        stats.put("purged", purged.get());
+        return stats;
+    }
+
+    private boolean isExpired(LocalDateTime createdAt) {
+        return ttlHours > 0 && createdAt != null && createdAt.isBefore(LocalDateTime.now(clock).minusHours(ttlHours));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        purger.shutdownNow();
+    }
+
+    /**
+     * Collapses whitespace and line-ending differences so re-extractions of the
+     * same document map to the same key.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = sb.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    sb.append(' ');
+                    pendingSpace = false;
+                }
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
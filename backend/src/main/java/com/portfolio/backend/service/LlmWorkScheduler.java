@@ -0,0 +1,264 @@
+package com.portfolio.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control in front of Ollama. At most {@code concurrency} model calls
+ * run at once; the rest wait in a bounded queue. Interactive work is always
+ * dispatched before batch work, and within a class waiting users are served
+ * round-robin so one user with many requests cannot starve the others.
+ *
+ * Work runs on the caller's own thread once it is admitted, so interruption
+ * and cancellation behave exactly as for a direct call.
+ */
+@Service
+public class LlmWorkScheduler {
+
+    private final int concurrency;
+    private final int queueCapacity;
+    private final long maxWaitMs;
+
+    private final Object lock = new Object();
+    private final Map<LlmPriority, FairQueue> queues = new EnumMap<>(LlmPriority.class);
+    private int running;
+    private int queued;
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong totalWaitMs = new AtomicLong();
+    private final AtomicLong maxObservedWaitMs = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong totalServiceMs = new AtomicLong();
+
+    public LlmWorkScheduler(
+            @Value("${ollama.scheduler.concurrency:2}") int concurrency,
+            @Value("${ollama.scheduler.queue-capacity:32}") int queueCapacity,
+            @Value("${ollama.scheduler.max-wait-ms:120000}") long maxWaitMs) {
+        this.concurrency = concurrency;
+        this.queueCapacity = queueCapacity;
+        this.maxWaitMs = maxWaitMs;
+        for (LlmPriority priority : LlmPriority.values()) {
+            queues.put(priority, new FairQueue());
+        }
+    }
+
+    public <T> T run(LlmCallContext context, Callable<T> work) throws Exception {
+        Ticket ticket = enqueue(context);
+        long waitStart = System.currentTimeMillis();
+        awaitTurn(ticket, context);
+        recordWait(System.currentTimeMillis() - waitStart);
+
+        long serviceStart = System.currentTimeMillis();
+        try {
+            return work.call();
+        } finally {
+            totalServiceMs.addAndGet(System.currentTimeMillis() - serviceStart);
+            completed.incrementAndGet();
+            release();
+        }
+    }
+
+    /**
+     * Takes a slot without queueing, for a hedged duplicate of a call that
+     * already holds one. Succeeds only while a slot is free and no work is
+     * waiting, so hedges never delay queued calls. Hand the slot back with
+     * releaseExtra().
+     */
+    public boolean tryAcquireExtra() {
+        synchronized (lock) {
+            if (running >= concurrency || queued > 0) {
+                return false;
+            }
+            running++;
+            return true;
+        }
+    }
+
+    public void releaseExtra() {
+        release();
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    private Ticket enqueue(LlmCallContext context) {
+        synchronized (lock) {
+            if (queued >= queueCapacity) {
+                rejected.incrementAndGet();
+                throw new LlmQueueFullException("The AI service is busy. Please try again shortly.",
+                        estimateRetryAfterSeconds());
+            }
+            Ticket ticket = new Ticket(context.getPriority(), context.getUserKey());
+            queues.get(context.getPriority()).add(ticket);
+            queued++;
+            dispatch();
+            return ticket;
+        }
+    }
+
+    private void awaitTurn(Ticket ticket, LlmCallContext context) throws InterruptedException {
+        // The request deadline also bounds the wait; running out of it here is
+        // reported like any other queue timeout (429 or the degraded response)
+        long waitMs = Math.max(0, Math.min(maxWaitMs, context.remainingMs()));
+        boolean granted;
+        try {
+            granted = ticket.latch.await(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            abandon(ticket, true);
+            throw e;
+        }
+        if (!granted && abandon(ticket, false)) {
+            timedOut.incrementAndGet();
+            throw new LlmQueueFullException("Timed out waiting for the AI service. Please try again shortly.",
+                    estimateRetryAfterSeconds());
+        }
+    }
+
+    /**
+     * Removes a ticket that gave up waiting. Returns false when it was granted
+     * concurrently; the slot is then handed back if releaseIfGranted is set,
+     * otherwise the caller owns it and should proceed.
+     */
+    private boolean abandon(Ticket ticket, boolean releaseIfGranted) {
+        synchronized (lock) {
+            if (ticket.granted) {
+                if (releaseIfGranted) {
+                    running--;
+                    dispatch();
+                }
+                return false;
+            }
+            queues.get(ticket.priority).remove(ticket);
+            queued--;
+            return true;
+        }
+    }
+
+    private void release() {
+        synchronized (lock) {
+            running--;
+            dispatch();
+        }
+    }
+
+    // Must hold lock
+    private void dispatch() {
+        while (running < concurrency && queued > 0) {
+            Ticket next = null;
+            for (LlmPriority priority : LlmPriority.values()) {
+                next = queues.get(priority).poll();
+                if (next != null) {
+                    break;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            queued--;
+            running++;
+            admitted.incrementAndGet();
+            next.granted = true;
+            next.latch.countDown();
+        }
+    }
+
+    private void recordWait(long waitMs) {
+        totalWaitMs.addAndGet(waitMs);
+        maxObservedWaitMs.accumulateAndGet(waitMs, Math::max);
+    }
+
+    private long estimateRetryAfterSeconds() {
+        long done = completed.get();
+        long avgServiceMs = done == 0 ? 30_000 : totalServiceMs.get() / done;
+        long rounds = (queued / Math.max(1, concurrency)) + 1;
+        return Math.max(1, (rounds * avgServiceMs + 999) / 1000);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (lock) {
+            stats.put("concurrency", concurrency);
+            stats.put("queueCapacity", queueCapacity);
+            stats.put("running", running);
+            stats.put("queued", queued);
+            for (LlmPriority priority : LlmPriority.values()) {
+                stats.put("queued" + (priority == LlmPriority.INTERACTIVE ? "Interactive" : "Batch"),
+                        queues.get(priority).size());
+            }
+        }
+        long admittedCount = admitted.get();
+        long done = completed.get();
+        stats.put("admitted", admittedCount);
+        stats.put("rejected", rejected.get());
+        stats.put("timedOut", timedOut.get());
+        stats.put("avgWaitMs", admittedCount == 0 ? 0 : totalWaitMs.get() / admittedCount);
+        stats.put("maxWaitMs", maxObservedWaitMs.get());
+        stats.put("avgServiceMs", done == 0 ? 0 : totalServiceMs.get() / done);
+        return stats;
+    }
+
+    private static final class Ticket {
+        private final LlmPriority priority;
+        private final String userKey;
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private boolean granted; // guarded by lock
+
+        private Ticket(LlmPriority priority, String userKey) {
+            this.priority = priority;
+            this.userKey = userKey;
+        }
+    }
+
+    /** Per-user FIFO queues served round-robin. Guarded by the scheduler lock. */
+    private static final class FairQueue {
+        private final LinkedHashMap<String, ArrayDeque<Ticket>> byUser = new LinkedHashMap<>();
+        private int size;
+
+        void add(Ticket ticket) {
+            byUser.computeIfAbsent(ticket.userKey, k -> new ArrayDeque<>()).addLast(ticket);
+            size++;
+        }
+
+        Ticket poll() {
+            if (byUser.isEmpty()) {
+                return null;
+            }
+            // Take from the user at the head, then move that user to the back
+            Map.Entry<String, ArrayDeque<Ticket>> head = byUser.entrySet().iterator().next();
+            String user = head.getKey();
+            ArrayDeque<Ticket> userQueue = byUser.remove(user);
+            Ticket ticket = userQueue.pollFirst();
+            if (!userQueue.isEmpty()) {
+                byUser.put(user, userQueue);
+            }
+            size--;
+            return ticket;
+        }
+
+        void remove(Ticket ticket) {
+            ArrayDeque<Ticket> userQueue = byUser.get(ticket.userKey);
+            if (userQueue != null && userQueue.remove(ticket)) {
+                size--;
+                if (userQueue.isEmpty()) {
+                    byUser.remove(ticket.userKey);
+                }
+            }
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
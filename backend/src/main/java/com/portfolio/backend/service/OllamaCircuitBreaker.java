@@ -0,0 +1,127 @@
+package com.portfolio.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker around Ollama generate calls. After failure-threshold
+ * consecutive failed calls the circuit opens and calls fail immediately with
+ * OllamaUnavailableException, instead of each one waiting for its own network
+ * timeout. Once open-ms has passed a single probe call is let through
+ * (half-open): success closes the circuit, failure opens it again.
+ *
+ * Calls that were cancelled or ran out of their request deadline say nothing
+ * about Ollama's health and are not counted.
+ */
+@Component
+public class OllamaCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean enabled;
+    private final int failureThreshold;
+    private final long openMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+    private long timesOpened;
+    private long rejected;
+
+    public OllamaCircuitBreaker(
+            @Value("${ollama.circuit.enabled:true}") boolean enabled,
+            @Value("${ollama.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${ollama.circuit.open-ms:30000}") long openMs) {
+        this.enabled = enabled;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMs = openMs;
+    }
+
+    /** Fails fast while the circuit is open, without taking the half-open probe. */
+    public synchronized void check() {
+        if (enabled && state == State.OPEN && !openIntervalElapsed()) {
+            reject();
+        }
+    }
+
+    /**
+     * Admits a call or throws OllamaUnavailableException. Returns true when the
+     * call is the half-open probe; pass that to ignore() if it is not counted.
+     */
+    public synchronized boolean acquire() {
+        if (!enabled) {
+            return false;
+        }
+        if (state == State.OPEN) {
+            if (!openIntervalElapsed()) {
+                reject();
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+            System.out.println("Ollama circuit half-open, probing");
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                reject();
+            }
+            probeInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) {
+            System.out.println("Ollama circuit closed");
+        }
+        state = State.CLOSED;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+            probeInFlight = false;
+            timesOpened++;
+            System.err.println("Ollama circuit opened after " + consecutiveFailures + " failed call(s)");
+        }
+    }
+
+    /** A call that ended without saying anything about Ollama's health (cancelled, deadline). */
+    public synchronized void ignore(boolean probe) {
+        if (probe && state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    private boolean openIntervalElapsed() {
+        return System.currentTimeMillis() - openedAt >= openMs;
+    }
+
+    private void reject() {
+        rejected++;
+        long remainingMs = Math.max(0, openedAt + openMs - System.currentTimeMillis());
+        throw new OllamaUnavailableException("Ollama circuit is open",
+                Math.max(1, TimeUnit.MILLISECONDS.toSeconds(remainingMs)));
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("state", state);
+        stats.put("consecutiveFailures", consecutiveFailures);
+        stats.put("failureThreshold", failureThreshold);
+        stats.put("openMs", openMs);
+        stats.put("timesOpened", timesOpened);
+        stats.put("rejected", rejected);
+        return stats;
+    }
+}
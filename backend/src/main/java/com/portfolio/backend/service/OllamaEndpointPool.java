@@ -0,0 +1,374 @@
+package com.portfolio.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Set of Ollama backends. Each call goes to the healthy backend with the
+ * fewest outstanding requests. Backends are ejected after repeated failures
+ * of calls or of the periodic /api/tags probe, and re-admitted once a probe
+ * succeeds again.
+ *
+ * With hedging enabled, a non-streaming call that is still running after the
+ * configured latency percentile is duplicated on a second backend; whichever
+ * finishes first wins and the other is cancelled (which aborts its socket).
+ * A hedge takes a slot of the LLM work scheduler, and is only sent when a
+ * slot is free and no call is waiting, so hedging never runs more model
+ * calls than ollama.scheduler.concurrency. Hedged calls run on a bounded
+ * pool (two threads per scheduler slot); when it is full the call is made
+ * on the caller's thread without a hedge.
+ */
+@Component
+public class OllamaEndpointPool {
+
+    @FunctionalInterface
+    public interface EndpointCall<T> {
+        T call(String url) throws Exception;
+    }
+
+    private static final int LATENCY_WINDOW = 256;
+
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final int failureThreshold;
+    private final boolean hedgingEnabled;
+    private final double hedgePercentile;
+    private final long hedgeMinDelayMs;
+    private final long hedgeInitialDelayMs;
+    private final HttpClient probeClient;
+    private final long probeTimeoutMs;
+    private final ScheduledExecutorService prober;
+    private final ExecutorService hedgeExecutor;
+    private final LlmWorkScheduler workScheduler;
+
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int latencyCount;
+    private int latencyNext;
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+    private final AtomicLong hedgesSkipped = new AtomicLong();
+
+    public OllamaEndpointPool(
+            LlmWorkScheduler workScheduler,
+            @Value("${ollama.urls:${ollama.url}}") String urls,
+            @Value("${ollama.lb.failure-threshold:3}") int failureThreshold,
+            @Value("${ollama.lb.probe-interval-ms:10000}") long probeIntervalMs,
+            @Value("${ollama.lb.probe-timeout-ms:2000}") long probeTimeoutMs,
+            @Value("${ollama.hedge.enabled:false}") boolean hedgingEnabled,
+            @Value("${ollama.hedge.percentile:0.95}") double hedgePercentile,
+            @Value("${ollama.hedge.min-delay-ms:2000}") long hedgeMinDelayMs,
+            @Value("${ollama.hedge.initial-delay-ms:30000}") long hedgeInitialDelayMs) {
+        Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(u -> !u.isEmpty())
+                .forEach(u -> endpoints.add(new Endpoint(u)));
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one Ollama URL must be configured");
+        }
+        this.workScheduler = workScheduler;
+        this.failureThreshold = failureThreshold;
+        this.hedgingEnabled = hedgingEnabled && endpoints.size() > 1;
+        this.hedgePercentile = hedgePercentile;
+        this.hedgeMinDelayMs = hedgeMinDelayMs;
+        this.hedgeInitialDelayMs = hedgeInitialDelayMs;
+        this.probeTimeoutMs = probeTimeoutMs;
+        this.probeClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(probeTimeoutMs))
+                .build();
+        this.prober = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ollama-health-probe");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger hedgeThreads = new AtomicInteger();
+        // The primaries of the calls holding scheduler slots, plus one hedge per free slot
+        this.hedgeExecutor = new ThreadPoolExecutor(0, 2 * Math.max(1, workScheduler.getConcurrency()), 60L,
+                TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+                    Thread t = new Thread(r, "ollama-hedge-" + hedgeThreads.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        if (probeIntervalMs > 0) {
+            prober.scheduleWithFixedDelay(this::probeAll, probeIntervalMs, probeIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Runs the call against the least-loaded healthy backend. */
+    public <T> T execute(EndpointCall<T> call) throws Exception {
+        return execute(call, false);
+    }
+
+    /**
+     * Runs the call against the least-loaded healthy backend, hedging it on a
+     * second backend when allowed and the first one is slow.
+     */
+    public <T> T execute(EndpointCall<T> call, boolean hedgeable) throws Exception {
+        if (!hedgeable || !hedgingEnabled) {
+            return attempt(pick(null), call);
+        }
+
+        Endpoint primary = pick(null);
+        CompletionService<T> completion = new ExecutorCompletionService<>(hedgeExecutor);
+        List<Future<T>> attempts = new ArrayList<>(2);
+        try {
+            attempts.add(completion.submit(() -> attempt(primary, call)));
+        } catch (RejectedExecutionException e) {
+            hedgesSkipped.incrementAndGet();
+            return attempt(primary, call);
+        }
+        // Claimed by whichever releases the hedge's scheduler slot: the hedge once it runs, else the finally below
+        AtomicBoolean hedgeSlotReleased = new AtomicBoolean(true);
+        try {
+            Future<T> first = completion.poll(hedgeDelayMs(), TimeUnit.MILLISECONDS);
+            if (first != null) {
+                return unwrap(first);
+            }
+
+            Endpoint secondary = pick(primary);
+            if (secondary == primary) {
+                return unwrap(attempts.get(0));
+            }
+            if (!workScheduler.tryAcquireExtra()) {
+                hedgesSkipped.incrementAndGet();
+                return unwrap(attempts.get(0));
+            }
+            hedgeSlotReleased.set(false);
+            Future<T> hedge;
+            try {
+                hedge = completion.submit(() -> {
+                    if (!hedgeSlotReleased.compareAndSet(false, true)) {
+                        throw new CancellationException();
+                    }
+                    try {
+                        return attempt(secondary, call);
+                    } finally {
+                        workScheduler.releaseExtra();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                hedgesSkipped.incrementAndGet();
+                return unwrap(attempts.get(0));
+            }
+            hedgesSent.incrementAndGet();
+            attempts.add(hedge);
+
+            // Take the first successful result; only fail if both attempts failed
+            Exception lastFailure = null;
+            for (int i = 0; i < attempts.size(); i++) {
+                Future<T> done = completion.take();
+                try {
+                    T result = unwrap(done);
+                    if (done == hedge) {
+                        hedgesWon.incrementAndGet();
+                    }
+                    return result;
+                } catch (Exception e) {
+                    lastFailure = e;
+                }
+            }
+            throw lastFailure;
+        } finally {
+            for (Future<T> attempt : attempts) {
+                attempt.cancel(true);
+            }
+            if (hedgeSlotReleased.compareAndSet(false, true)) {
+                workScheduler.releaseExtra();
+            }
+        }
+    }
+
+    private <T> T attempt(Endpoint endpoint, EndpointCall<T> call) throws Exception {
+        endpoint.outstanding.incrementAndGet();
+        long start = System.currentTimeMillis();
+        try {
+            T result = call.call(endpoint.url);
+            endpoint.consecutiveFailures.set(0);
+            recordLatency(System.currentTimeMillis() - start);
+            return result;
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            if (!Thread.currentThread().isInterrupted()) {
+                recordFailure(endpoint, e.getMessage());
+            }
+            throw e;
+        } finally {
+            endpoint.outstanding.decrementAndGet();
+        }
+    }
+
+    /** Counts a failed call or probe and ejects the backend once failureThreshold are reached in a row. */
+    private void recordFailure(Endpoint endpoint, String reason) {
+        if (endpoint.consecutiveFailures.incrementAndGet() >= failureThreshold && endpoint.healthy) {
+            endpoint.healthy = false;
+            System.err.println("Ejecting Ollama backend " + endpoint.url + ": " + reason);
+        }
+    }
+
+    private Endpoint pick(Endpoint exclude) {
+        List<Endpoint> candidates = new ArrayList<>(endpoints.size());
+        for (Endpoint e : endpoints) {
+            if (e.healthy && e != exclude) {
+                candidates.add(e);
+            }
+        }
+        if (candidates.isEmpty()) {
+            // Nothing healthy (or only the excluded one): try anyway rather than fail outright
+            for (Endpoint e : endpoints) {
+                if (e != exclude) {
+                    candidates.add(e);
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return exclude;
+        }
+        // Least outstanding requests, random tie-break so idle backends share load
+        Endpoint best = null;
+        int bestLoad = Integer.MAX_VALUE;
+        int ties = 0;
+        for (Endpoint e : candidates) {
+            int load = e.outstanding.get();
+            if (load < bestLoad) {
+                best = e;
+                bestLoad = load;
+                ties = 1;
+            } else if (load == bestLoad && ThreadLocalRandom.current().nextInt(++ties) == 0) {
+                best = e;
+            }
+        }
+        return best;
+    }
+
+    /** Generate URLs of all backends, healthy or not. */
+    public List<String> urls() {
+        List<String> urls = new ArrayList<>(endpoints.size());
+        for (Endpoint e : endpoints) {
+            urls.add(e.url);
+        }
+        return urls;
+    }
+
+    private void probeAll() {
+        for (Endpoint endpoint : endpoints) {
+            boolean ok;
+            String failure = null;
+            try {
+                HttpRequest request = HttpRequest.newBuilder(endpoint.tagsUri)
+                        .timeout(Duration.ofMillis(probeTimeoutMs))
+                        .GET()
+                        .build();
+                int status = probeClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                ok = status == 200;
+                failure = "health probe returned HTTP " + status;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                ok = false;
+                failure = "health probe failed: " + e.getMessage();
+            }
+            if (!ok) {
+                // A single slow or failed probe on a busy host is not enough to eject it
+                recordFailure(endpoint, failure);
+            } else if (!endpoint.healthy) {
+                System.out.println("Ollama backend " + endpoint.url + " is healthy again");
+                endpoint.consecutiveFailures.set(0);
+                endpoint.healthy = true;
+            }
+        }
+    }
+
+    private synchronized void recordLatency(long latencyMs) {
+        latencies[latencyNext] = latencyMs;
+        latencyNext = (latencyNext + 1) % LATENCY_WINDOW;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_WINDOW);
+    }
+
+    private synchronized long hedgeDelayMs() {
+        if (latencyCount < 20) {
+            // Not enough samples for a meaningful percentile yet
+            return Math.max(hedgeMinDelayMs, hedgeInitialDelayMs);
+        }
+        long[] window = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(window);
+        int index = (int) Math.min(window.length - 1, Math.ceil(hedgePercentile * window.length) - 1);
+        return Math.max(hedgeMinDelayMs, window[Math.max(0, index)]);
+    }
+
+    private static <T> T unwrap(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        List<Map<String, Object>> backends = new ArrayList<>();
+        for (Endpoint e : endpoints) {
+            Map<String, Object> backend = new LinkedHashMap<>();
+            backend.put("url", e.url);
+            backend.put("healthy", e.healthy);
+            backend.put("outstanding", e.outstanding.get());
+            backend.put("consecutiveFailures", e.consecutiveFailures.get());
+            backends.add(backend);
+        }
+        stats.put("backends", backends);
+        stats.put("hedgingEnabled", hedgingEnabled);
+        stats.put("hedgeDelayMs", hedgingEnabled ? hedgeDelayMs() : null);
+        stats.put("hedgesSent", hedgesSent.get());
+        stats.put("hedgesWon", hedgesWon.get());
+        stats.put("hedgesSkipped", hedgesSkipped.get());
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        prober.shutdownNow();
+        hedgeExecutor.shutdownNow();
+    }
+
+    private static final class Endpoint {
+        private final String url;
+        private final URI tagsUri;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile boolean healthy = true;
+
+        private Endpoint(String url) {
+            this.url = url;
+            // ollama.url points at /api/generate; the probe hits /api/tags on the same host
+            this.tagsUri = URI.create(url).resolve("/api/tags");
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.portfolio.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * HTTP client for Ollama. Wraps a RestTemplate backed by a shared JDK
+ * HttpClient (persistent keep-alive connections) and adds connect/read/total
+ * deadlines and a cap on concurrent requests.
+ *
+ * Cancellation: the JDK client aborts the exchange and closes the socket when
+ * the calling thread is interrupted, so a cancelled Future or an expired total
+ * deadline (which interrupts the caller) really frees the connection.
+ */
+@Component
+public class OllamaHttpClient {
+
+    private final RestTemplate restTemplate;
+    private final Semaphore inFlight;
+    private final long acquireTimeoutMs;
+    private final long totalTimeoutMs;
+    private final ScheduledExecutorService watchdog;
+
+    public OllamaHttpClient(
+            @Value("${ollama.client.connect-timeout-ms:5000}") long connectTimeoutMs,
+            @Value("${ollama.client.read-timeout-ms:120000}") long readTimeoutMs,
+            @Value("${ollama.client.total-timeout-ms:300000}") long totalTimeoutMs,
+            @Value("${ollama.client.max-in-flight:4}") int maxInFlight,
+            @Value("${ollama.client.acquire-timeout-ms:30000}") long acquireTimeoutMs) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.inFlight = new Semaphore(maxInFlight, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.totalTimeoutMs = totalTimeoutMs;
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ollama-deadline-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * POSTs a JSON body and hands the response to the extractor. Blocks for at
+     * most acquire-timeout waiting for an in-flight slot, and the whole call
+     * (including reading a streamed body) is bounded by total-timeout.
+     */
+    public <T> T postJson(String url, byte[] body, ResponseExtractor<T> extractor) throws Exception {
+        return postJson(url, body, extractor, 0);
+    }
+
+    /** Same as postJson, with the total deadline shortened to timeoutMs when that is positive and lower. */
+    public <T> T postJson(String url, byte[] body, ResponseExtractor<T> extractor, long timeoutMs)
+            throws Exception {
+        long callTimeoutMs = timeoutMs > 0 ? Math.min(timeoutMs, totalTimeoutMs) : totalTimeoutMs;
+        if (!inFlight.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("Too many concurrent Ollama requests (waited " + acquireTimeoutMs + " ms)");
+        }
+        CallDeadline deadline = new CallDeadline(Thread.currentThread());
+        ScheduledFuture<?> timer = watchdog.schedule(deadline::expire, callTimeoutMs, TimeUnit.MILLISECONDS);
+        try {
+            return restTemplate.execute(url, HttpMethod.POST,
+                    request -> {
+                        request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                        request.getBody().write(body);
+                    },
+                    extractor);
+        } finally {
+            timer.cancel(false);
+            inFlight.release();
+            if (deadline.finish()) {
+                throw new TimeoutException("Ollama request exceeded total deadline of " + callTimeoutMs + " ms");
+            }
+        }
+    }
+
+    /**
+     * Interrupts the caller when the total deadline expires. The interrupt and
+     * the clearing of it in finish() happen under one lock, so no interrupt
+     * can reach the caller once its call has finished.
+     */
+    private static final class CallDeadline {
+        private final Thread caller;
+        private boolean finished;
+        private boolean expired;
+
+        CallDeadline(Thread caller) {
+            this.caller = caller;
+        }
+
+        synchronized void expire() {
+            // An already interrupted caller is being cancelled; leave that interrupt to it
+            if (!finished && !caller.isInterrupted()) {
+                expired = true;
+                caller.interrupt();
+            }
+        }
+
+        /** Marks the call finished and returns whether the deadline interrupted it. */
+        synchronized boolean finish() {
+            finished = true;
+            if (expired) {
+                // Clear only the interrupt raised by expire()
+                Thread.interrupted();
+            }
+            return expired;
+        }
+    }
+
+    public int availableSlots() {
+        return inFlight.availablePermits();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        watchdog.shutdownNow();
+    }
+}
@@ -0,0 +1,182 @@
+package com.portfolio.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the configured models on every Ollama backend at startup with a
+ * one-token generation, so the first upload does not pay the model-load cost.
+ * Runs as an ApplicationRunner: the application only reports readiness (and
+ * /api/resume/health only answers 200) once warm-up has finished.
+ *
+ * Afterwards the models are touched every keep-warm interval during the
+ * configured business hours, which together with keep_alive keeps them
+ * resident while uploads are expected.
+ */
+@Component
+public class OllamaModelWarmer implements ApplicationRunner {
+
+    private static final String WARMUP_PROMPT = "Hi";
+
+    private final OllamaHttpClient ollamaHttpClient;
+    private final OllamaEndpointPool endpointPool;
+    private final OllamaUsageStats usageStats;
+    private final OllamaService ollamaService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final boolean enabled;
+    private final Set<String> models = new LinkedHashSet<>();
+    private final String keepAlive;
+    private final long timeoutMs;
+    private final long touchIntervalMs;
+    private final Set<DayOfWeek> touchDays;
+    private final int touchStartHour;
+    private final int touchEndHour;
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<String, Map<String, Object>> results = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    private volatile LocalDateTime lastTouch;
+
+    public OllamaModelWarmer(OllamaHttpClient ollamaHttpClient, OllamaEndpointPool endpointPool,
+            OllamaUsageStats usageStats, OllamaService ollamaService,
+            @Value("${ollama.warmup.enabled:true}") boolean enabled,
+            @Value("${ollama.model}") String model,
+            @Value("${ollama.warmup.models:}") String extraModels,
+            @Value("${ollama.keep-alive:30m}") String keepAlive,
+            @Value("${ollama.warmup.timeout-ms:120000}") long timeoutMs,
+            @Value("${ollama.keep-warm.interval-ms:240000}") long touchIntervalMs,
+            @Value("${ollama.keep-warm.days:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY}") DayOfWeek[] touchDays,
+            @Value("${ollama.keep-warm.start-hour:8}") int touchStartHour,
+            @Value("${ollama.keep-warm.end-hour:20}") int touchEndHour) {
+        this.ollamaHttpClient = ollamaHttpClient;
+        this.endpointPool = endpointPool;
+        this.usageStats = usageStats;
+        this.ollamaService = ollamaService;
+        this.enabled = enabled;
+        this.models.add(model);
+        Arrays.stream(extraModels.split(","))
+                .map(String::trim)
+                .filter(m -> !m.isEmpty())
+                .forEach(this.models::add);
+        this.keepAlive = keepAlive;
+        this.timeoutMs = timeoutMs;
+        this.touchIntervalMs = touchIntervalMs;
+        this.touchDays = Set.of(touchDays);
+        this.touchStartHour = touchStartHour;
+        this.touchEndHour = touchEndHour;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ollama-keep-warm");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            ready = true;
+            return;
+        }
+        long start = System.currentTimeMillis();
+        System.out.println("Warming up Ollama models " + models + " on " + endpointPool.urls());
+        warmAll("warmup");
+        ready = true;
+        System.out.println("Ollama warm-up finished in " + (System.currentTimeMillis() - start) + " ms");
+        if (touchIntervalMs > 0) {
+            scheduler.scheduleWithFixedDelay(this::touch, touchIntervalMs, touchIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void touch() {
+        LocalDateTime now = LocalDateTime.now();
+        if (touchDays.contains(now.getDayOfWeek()) && now.getHour() >= touchStartHour
+                && now.getHour() < touchEndHour) {
+            warmAll("keep-warm");
+            lastTouch = now;
+        }
+    }
+
+    /**
+     * Sends the one-token generation for every model to every backend. A
+     * failure is logged and recorded; it does not hold up startup beyond the
+     * warm-up timeout, since the parse calls have their own fallbacks.
+     */
+    private void warmAll(String operation) {
+        List<String> urls = endpointPool.urls();
+        for (String url : urls) {
+            for (String model : models) {
+                Map<String, Object> result = new LinkedHashMap<>();
+                long start = System.currentTimeMillis();
+                try {
+                    byte[] body = objectMapper.writeValueAsBytes(Map.of(
+                            "model", model,
+                            "prompt", WARMUP_PROMPT,
+                            "stream", false,
+                            "keep_alive", keepAlive,
+                            // A different num_ctx than the real calls would load a second runner
+                            "options", Map.of("num_predict", 1, "num_ctx", ollamaService.contextSize())));
+                    JsonNode response = ollamaHttpClient.postJson(url, body, clientResponse ->
+                            clientResponse.getStatusCode() == HttpStatus.OK
+                                    ? objectMapper.readTree(clientResponse.getBody())
+                                    : null,
+                            timeoutMs);
+                    if (response == null) {
+                        throw new IllegalStateException("Ollama rejected the warm-up request");
+                    }
+                    usageStats.record(operation, model, response);
+                    result.put("ok", true);
+                    result.put("loadMs", response.path("load_duration").asLong(0) / 1_000_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    System.err.println("Could not warm up " + model + " on " + url + ": " + e.getMessage());
+                    result.put("ok", false);
+                    result.put("error", e.getMessage());
+                }
+                result.put("elapsedMs", System.currentTimeMillis() - start);
+                result.put("at", LocalDateTime.now().toString());
+                results.put(model + " @ " + url, result);
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", ready);
+        stats.put("models", models);
+        stats.put("keepAlive", keepAlive);
+        stats.put("lastTouch", lastTouch != null ? lastTouch.toString() : null);
+        stats.put("backends", new LinkedHashMap<>(results));
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -3,33 +3,524 @@ package com.portfolio.backend.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.IntNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.portfolio.backend.dto.PortfolioData;
 import com.portfolio.backend.dto.ResumeAnalysis;
+import com.portfolio.backend.service.ResumeSections.Section;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.*;
-
+import org.springframework.http.HttpStatus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.regex.Matcher;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Service
 public class OllamaService {
 
-  @Value("${ollama.url}")
-  private String ollamaUrl;
-
   @Value("${ollama.model}")
   private String ollamaModel;
 
-  private final RestTemplate restTemplate = new RestTemplate();
+  /**
+   * When true the resume text is placed at the very start of both prompts, so
+   * the parse and analysis calls share an identical prefix and Ollama can reuse
+   * the already-evaluated KV cache for it instead of evaluating it twice.
+   */
+  @Value("${ollama.prompt.shared-prefix:true}")
+  private boolean sharedPromptPrefix;
+
+  // Bump when a prompt changes so cached results from the old prompt are ignored
+  private static final String PARSE_PROMPT_VERSION = "parse-v4";
+  private static final String ANALYZE_PROMPT_VERSION = "analyze-v2";
+
+  private static final Pattern ADDRESS_PATTERN = Pattern.compile(
+      ".*(Street|St\\.?|Road|Rd\\.?|Avenue|Ave\\.?|Lane|Ln\\.?|Blvd|Apartment|Apt|Suite|Unit|PO Box|P\\.?O\\.? Box).*?");
+  private static final Pattern DIGIT_PATTERN = Pattern.compile("\\d");
+
+  /**
+   * When true the JSON schema of the expected DTO is sent as Ollama's
+   * "format", so generation is constrained to well-formed, complete output.
+   */
+  @Value("${ollama.structured-output:true}")
+  private boolean structuredOutput;
+
+  // Generation budgets; num_predict is sized per request, num_ctx is the same for every call
+  @Value("${ollama.num-predict.min:1024}")
+  private int minNumPredict;
+
+  @Value("${ollama.num-predict.max:4096}")
+  private int maxNumPredict;
+
+  @Value("${ollama.num-ctx:8192}")
+  private int numCtx;
+
+  @Value("${ollama.num-ctx.max:8192}")
+  private int maxNumCtx;
+
+  private static final int ANALYZE_NUM_PREDICT = 1536;
+  private static final int MIN_SECTION_NUM_PREDICT = 384;
+
+  /**
+   * When true the portfolio is parsed with one smaller prompt per resume
+   * section (profile, skills, experience, education, projects) running in
+   * parallel, instead of one long generation. Falls back to the single prompt
+   * when sections cannot be detected.
+   */
+  @Value("${ollama.parse.section-parallel:true}")
+  private boolean sectionParallelParse;
+
+  // A model call is skipped (fallback used) when less than this is left of the request deadline
+  @Value("${ollama.deadline.min-call-ms:5000}")
+  private long minCallBudgetMs;
+
+  // How long Ollama keeps the model loaded after a call (Ollama's own default is 5m)
+  @Value("${ollama.keep-alive:30m}")
+  private String keepAlive;
+
   private final ObjectMapper objectMapper = new ObjectMapper();
+  private final Map<String, JsonNode> outputSchemas = new HashMap<>();
+  private final OllamaHttpClient ollamaHttpClient;
+  private final OllamaEndpointPool endpointPool;
+  private final LlmResultCache resultCache;
+  private final LlmWorkScheduler workScheduler;
+  private final OllamaUsageStats usageStats;
+  private final ResumeTextCompactor textCompactor;
+  private final ContactExtractor contactExtractor;
+  private final SkillTaxonomy skillTaxonomy;
+  private final OllamaCircuitBreaker circuitBreaker;
+  private final ExecutorService sectionExecutor;
+  private final StageMetrics stageMetrics;
+
+  public OllamaService(OllamaHttpClient ollamaHttpClient, OllamaEndpointPool endpointPool,
+      LlmResultCache resultCache, LlmWorkScheduler workScheduler, OllamaUsageStats usageStats,
+      ResumeTextCompactor textCompactor, ContactExtractor contactExtractor, SkillTaxonomy skillTaxonomy,
+      OllamaCircuitBreaker circuitBreaker, @Qualifier("sectionExecutor") ExecutorService sectionExecutor,
+      StageMetrics stageMetrics) {
+    this.ollamaHttpClient = ollamaHttpClient;
+    this.endpointPool = endpointPool;
+    this.resultCache = resultCache;
+    this.workScheduler = workScheduler;
+    this.usageStats = usageStats;
+    this.textCompactor = textCompactor;
+    this.contactExtractor = contactExtractor;
+    this.skillTaxonomy = skillTaxonomy;
+    this.circuitBreaker = circuitBreaker;
+    this.sectionExecutor = sectionExecutor;
+    this.stageMetrics = stageMetrics;
+    outputSchemas.put("parse", loadSchema("ollama/portfolio-schema.json"));
+    outputSchemas.put("analyze", loadSchema("ollama/analysis-schema.json"));
+    for (ParsePart part : ParsePart.values()) {
+      outputSchemas.put(part.operation(), subSchema(outputSchemas.get("parse"), part.fields));
+    }
+  }
+
+  private JsonNode subSchema(JsonNode schema, List<String> fields) {
+    ObjectNode sub = objectMapper.createObjectNode();
+    sub.put("type", "object");
+    ObjectNode properties = sub.putObject("properties");
+    ArrayNode required = sub.putArray("required");
+    for (String field : fields) {
+      properties.set(field, schema.path("properties").path(field));
+      required.add(field);
+    }
+    return sub;
+  }
+
+  private JsonNode loadSchema(String path) {
+    try (InputStream in = new ClassPathResource(path).getInputStream()) {
+      return objectMapper.readTree(in);
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot load output schema " + path, e);
+    }
+  }
 
   public PortfolioData parseResume(String resumeText) {
-    String prompt = String.format(
+    return parseResume(resumeText, null, LlmCallContext.interactive(null));
+  }
+
+  public PortfolioData parseResume(String resumeText, StreamingJsonFieldParser.Listener listener) {
+    return parseResume(resumeText, listener, LlmCallContext.interactive(null));
+  }
+
+  /**
+   * Parses the resume; when a listener is given the model output is streamed
+   * and each completed top-level field is reported as soon as it is generated.
+   * Results are served from the content-hash cache unless the context bypasses
+   * it; model calls are admitted through the LLM work scheduler.
+   */
+  public PortfolioData parseResume(String resumeText, StreamingJsonFieldParser.Listener listener,
+      LlmCallContext context) {
+    String promptText = textCompactor.compact(resumeText);
+    String promptVersion = promptVersion(PARSE_PROMPT_VERSION);
+    String cacheKey = resultCache.key("portfolio", ollamaModel, promptVersion, promptText);
+    long cacheStart = System.nanoTime();
+    Optional<PortfolioData> cached = resultCache.get(cacheKey, PortfolioData.class, context.isBypassCache());
+    stageMetrics.record("llm.cache", cacheStart);
+    if (cached.isPresent()) {
+      System.out.println("Portfolio parse served from cache");
+      usageStats.recordResult("parse", ollamaModel, "cached");
+      replayFields(cached.get(), listener);
+      return cached.get();
+    }
+
+    try {
+      PortfolioData parsed = sectionParallelParse ? parseBySections(promptText, listener, context) : null;
+      if (parsed == null) {
+        String prompt = buildParsePrompt(promptText);
+        // Extraction output grows with the resume; leave headroom for rewritten summaries
+        int numPredict = clampNumPredict(ResumeTextCompactor.estimateTokens(promptText) + 512);
+        String response = generate("parse", prompt, numPredict, listener, context);
+        parsed = parseJsonResponse(response, PortfolioData.class);
+      }
+      contactExtractor.fill(parsed, resumeText);
+      parsed.setSkills(skillTaxonomy.merge(parsed.getSkills(), promptText));
+      parsed.setFullName(sanitizeFullName(parsed.getFullName(), resumeText));
+      resultCache.put(cacheKey, "portfolio", ollamaModel, promptVersion, parsed);
+      usageStats.recordResult("parse", ollamaModel, "ok");
+      return parsed;
+    } catch (LlmQueueFullException e) {
+      throw e;
+    } catch (OllamaUnavailableException | LlmDeadlineExceededException e) {
+      if (!context.isFallbackAllowed()) {
+        throw e;
+      }
+      System.out.println("Parsing resume without the model: " + e.getMessage());
+      usageStats.recordResult("parse", ollamaModel, "fallback");
+      return basicPortfolio(resumeText);
+    } catch (Exception e) {
+      System.err.println("Error parsing resume: " + e);
+      if (!context.isFallbackAllowed()) {
+        throw new IllegalStateException("Resume parse failed: " + e.getMessage(), e);
+      }
+      usageStats.recordResult("parse", ollamaModel, "fallback");
+      return basicPortfolio(resumeText);
+    }
+  }
+
+  /**
+   * Section-parallel parse: one small prompt per part of the portfolio, run
+   * concurrently (each call still goes through the work scheduler) and merged
+   * into one object. Returns null when too few sections are detected, so the
+   * caller uses the monolithic prompt instead.
+   */
+  private PortfolioData parseBySections(String resumeText, StreamingJsonFieldParser.Listener listener,
+      LlmCallContext context) throws Exception {
+    Map<Section, String> sections = ResumeSections.split(resumeText);
+    if (!hasParseSections(sections)) {
+      System.out.println("Resume sections not detected; using the single parse prompt");
+      return null;
+    }
+    ObjectNode merged = parseParts(EnumSet.allOf(ParsePart.class), sections, resumeText, listener, context);
+    return withEmptyLists(objectMapper.treeToValue(merged, PortfolioData.class));
+  }
+
+  private static boolean hasParseSections(Map<Section, String> sections) {
+    long detected = Stream.of(Section.EXPERIENCE, Section.EDUCATION, Section.PROJECTS, Section.SKILLS)
+        .filter(sections::containsKey)
+        .count();
+    return detected >= 2;
+  }
+
+  /** Runs the section prompts of the given parts concurrently and merges their fields. */
+  private ObjectNode parseParts(Set<ParsePart> parts, Map<Section, String> sections, String resumeText,
+      StreamingJsonFieldParser.Listener listener, LlmCallContext context) throws Exception {
+    // Section calls report fields from several threads
+    StreamingJsonFieldParser.Listener sharedListener = listener == null ? null : (path, value) -> {
+      synchronized (listener) {
+        listener.onField(path, value);
+      }
+    };
+
+    Map<ParsePart, Future<String>> calls = new EnumMap<>(ParsePart.class);
+    try {
+      for (ParsePart part : parts) {
+        String partText = part.text(sections, resumeText);
+        if (partText == null) {
+          continue;
+        }
+        String prompt = buildSectionPrompt(part, partText, resumeText);
+        // One part of the output each: below the floor of the whole-resume prompts
+        int numPredict = Math.max(MIN_SECTION_NUM_PREDICT,
+            Math.min(maxNumPredict, ResumeTextCompactor.estimateTokens(partText) + 256));
+        calls.put(part, submitSection(
+            () -> generate(part.operation(), prompt, numPredict, sharedListener, context)));
+      }
+
+      ObjectNode merged = objectMapper.createObjectNode();
+      for (Map.Entry<ParsePart, Future<String>> call : calls.entrySet()) {
+        JsonNode partial;
+        try (Reader reader = new JsonRepairReader(awaitSection(call.getValue()))) {
+          partial = objectMapper.readTree(reader);
+        }
+        for (String field : call.getKey().fields) {
+          if (partial != null && partial.hasNonNull(field)) {
+            merged.set(field, partial.get(field));
+          }
+        }
+      }
+      return merged;
+    } finally {
+      for (Future<String> call : calls.values()) {
+        call.cancel(true);
+      }
+    }
+  }
+
+  private static PortfolioData withEmptyLists(PortfolioData parsed) {
+    if (parsed.getExperience() == null) {
+      parsed.setExperience(new ArrayList<>());
+    }
+    if (parsed.getEducation() == null) {
+      parsed.setEducation(new ArrayList<>());
+    }
+    if (parsed.getProjects() == null) {
+      parsed.setProjects(new ArrayList<>());
+    }
+    if (parsed.getSkills() == null) {
+      parsed.setSkills(new ArrayList<>());
+    }
+    return parsed;
+  }
+
+  /**
+   * Fingerprint of the parse sections of the resume as the section-parallel
+   * parse sees them. Has no sections when that parse does not apply (disabled
+   * or sections not detected), so the next re-upload is parsed in full.
+   */
+  public ResumeFingerprint fingerprint(String resumeText) {
+    String promptText = textCompactor.compact(resumeText);
+    Map<String, String> partTexts = new TreeMap<>();
+    if (sectionParallelParse) {
+      Map<Section, String> sections = ResumeSections.split(promptText);
+      if (hasParseSections(sections)) {
+        for (ParsePart part : ParsePart.values()) {
+          String partText = part.text(sections, promptText);
+          if (partText != null) {
+            partTexts.put(part.name(), partText);
+          }
+        }
+      }
+    }
+    return new ResumeFingerprint(ollamaModel + "/" + promptVersion(PARSE_PROMPT_VERSION), partTexts, promptText);
+  }
+
+  /**
+   * Re-parses only the changed parts (names from ResumeFingerprint) and
+   * merges them into the previously saved portfolio; a part whose section was
+   * removed is emptied. Contact fields and dictionary skills are refreshed from
+   * the new text. Falls back to a full parse if the section calls fail, but
+   * not while the model is unavailable or the deadline is spent.
+   */
+  public PortfolioData reparseSections(String resumeText, PortfolioData previous, Set<String> changedParts,
+      StreamingJsonFieldParser.Listener listener, LlmCallContext context) {
+    String promptText = textCompactor.compact(resumeText);
+    Set<ParsePart> parts = EnumSet.noneOf(ParsePart.class);
+    for (ParsePart part : ParsePart.values()) {
+      if (changedParts.contains(part.name())) {
+        parts.add(part);
+      }
+    }
+    try {
+      Map<Section, String> sections = ResumeSections.split(promptText);
+      ObjectNode merged = objectMapper.valueToTree(previous);
+      ObjectNode reparsed = parseParts(parts, sections, promptText, listener, context);
+      for (ParsePart part : parts) {
+        for (String field : part.fields) {
+          if (reparsed.hasNonNull(field)) {
+            merged.set(field, reparsed.get(field));
+          } else if (part.text(sections, promptText) == null) {
+            merged.putArray(field);
+          }
+        }
+      }
+      PortfolioData parsed = withEmptyLists(objectMapper.treeToValue(merged, PortfolioData.class));
+      contactExtractor.fill(parsed, resumeText);
+      parsed.setSkills(skillTaxonomy.merge(parsed.getSkills(), promptText));
+      parsed.setFullName(sanitizeFullName(parsed.getFullName(), resumeText));
+      usageStats.recordResult("parse", ollamaModel, "ok");
+      return parsed;
+    } catch (LlmQueueFullException | OllamaUnavailableException | LlmDeadlineExceededException e) {
+      // A basic portfolio must not replace the saved one: fail the re-analysis instead
+      throw e;
+    } catch (Exception e) {
+      System.err.println("Error re-parsing resume sections, parsing in full: " + e.getMessage());
+      return parseResume(resumeText, listener, context);
+    }
+  }
+
+  private Future<String> submitSection(Callable<String> sectionCall) {
+    Callable<String> call = RequestTrace.wrap(sectionCall);
+    try {
+      return sectionExecutor.submit(call);
+    } catch (RejectedExecutionException e) {
+      // Pool saturated: parse this section on the calling thread
+      FutureTask<String> inline = new FutureTask<>(call);
+      inline.run();
+      return inline;
+    }
+  }
+
+  private String awaitSection(Future<String> call) throws Exception {
+    try {
+      return call.get();
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof Exception cause ? cause : e;
+    }
+  }
+
+  /**
+   * With the shared prefix the section prompts also start with the whole
+   * resume, like the parse and analysis prompts, and point the model at the
+   * part's sections, so all calls for one resume reuse the same evaluated
+   * prefix. Otherwise only the part's own text is sent.
+   */
+  private String buildSectionPrompt(ParsePart part, String sectionText, String resumeText) {
+    if (sharedPromptPrefix) {
+      String focus = sectionText.equals(resumeText) ? ""
+          : "Read mainly its " + part.sourceNames() + " section(s).\n";
+      return layoutPrompt(
+          "You are an expert resume parser. Extract " + part.description
+              + " from the resume above and return ONLY valid JSON matching this structure.\n" + focus + "\n"
+              + "RULES: no markdown, no explanations; do not fabricate information; use the placeholders below when data is missing.\n\n"
+              + part.structure + "\n",
+          resumeText,
+          "Remember: Return ONLY the JSON object. No markdown, no explanations.");
+    }
+    return "You are an expert resume parser. Extract " + part.description
+        + " from this part of a resume and return ONLY valid JSON matching this structure.\n\n"
+        + "RULES: no markdown, no explanations; do not fabricate information; use the placeholders below when data is missing.\n\n"
+        + part.structure
+        + "\nResume section:\n" + sectionText + "\n\n"
+        + "Remember: Return ONLY the JSON object. No markdown, no explanations.\n";
+  }
+
+  /**
+   * Parts of the portfolio extracted by separate prompts in section-parallel
+   * mode, with the resume sections each one reads. Profile and skills fall back
+   * to the whole text when their sections are missing; the list parts are
+   * skipped (left empty) instead.
+   */
+  private enum ParsePart {
+    PROFILE("the candidate's name, headline and summary",
+        List.of("fullName", "headline", "about"),
+        true, List.of(Section.HEADER, Section.SUMMARY, Section.SKILLS),
+        """
+            {
+              "fullName": "The person's full name ONLY (not address, not company). If not found: 'Name Not Provided'",
+              "headline": "Current job title or desired role. If not found: 'Professional'",
+              "about": "A compelling 2-3 sentence professional summary. If minimal info: 'Seeking opportunities to leverage skills and experience'"
+            }
+            """),
+    SKILLS("the candidate's skills",
+        List.of("skills"), true, List.of(Section.SKILLS),
+        """
+            {
+              "skills": [
+                {
+                  "name": "Skill name from resume",
+                  "level": 70-90 for experienced skills, 50-70 for intermediate, 30-50 for beginner (number between 0-100),
+                  "category": "Must be one of: 'frontend', 'backend', 'design', 'soft-skills', 'tools', 'other'"
+                }
+              ]
+            }
+            Include at least 5-6 skills if any are mentioned; infer them from experience and projects if not listed.
+            """),
+    EXPERIENCE("the candidate's work experience",
+        List.of("experience"), false, List.of(Section.EXPERIENCE),
+        """
+            {
+              "experience": [
+                {
+                  "company": "Company/Organization name. If not available: 'Company Not Specified'",
+                  "role": "Job title/position. If not available: 'Role Not Specified'",
+                  "period": "Date range (e.g., 'Jan 2020 - Present'). If not available: 'Dates Not Specified'",
+                  "description": "Responsibilities and achievements (2-4 bullet points worth). If minimal info: 'Responsible for various duties and tasks'"
+                }
+              ]
+            }
+            """),
+    EDUCATION("the candidate's education",
+        List.of("education"), false, List.of(Section.EDUCATION),
+        """
+            {
+              "education": [
+                {
+                  "institution": "School/University name. If not available: 'Institution Not Specified'",
+                  "degree": "Degree type and major. If not available: 'Degree Not Specified'",
+                  "year": "Graduation year or date range. If not available: 'Year Not Specified'"
+                }
+              ]
+            }
+            """),
+    PROJECTS("every project",
+        List.of("projects"), false, List.of(Section.PROJECTS),
+        """
+            {
+              "projects": [
+                {
+                  "name": "Project name. If not available: 'Project Not Specified'",
+                  "description": "Project description including purpose and impact. If minimal info: 'Project details not provided'",
+                  "technologies": ["Array of technologies used - must be an array even if empty"],
+                  "link": "Project URL if available, otherwise empty string ''"
+                }
+              ]
+            }
+            Include EVERY distinct project (do not merge or drop them).
+            """);
+
+    private final String description;
+    private final List<String> fields;
+    private final boolean required;
+    private final List<Section> sources;
+    private final String structure;
+
+    ParsePart(String description, List<String> fields, boolean required, List<Section> sources, String structure) {
+      this.description = description;
+      this.fields = fields;
+      this.required = required;
+      this.sources = sources;
+      this.structure = structure;
+    }
+
+    String operation() {
+      return "parse:" + name().toLowerCase(Locale.ROOT);
+    }
+
+    String sourceNames() {
+      return String.join("/", sources.stream().map(Section::name).toList());
+    }
+
+    String text(Map<Section, String> sections, String resumeText) {
+      StringBuilder sb = new StringBuilder();
+      for (Section source : sources) {
+        String content = sections.get(source);
+        if (content != null) {
+          sb.append(content).append("\n\n");
+        }
+      }
+      if (sb.length() > 0) {
+        return sb.toString().trim();
+      }
+      return required ? resumeText : null;
+    }
+  }
+
+  private String buildParsePrompt(String resumeText) {
+    return layoutPrompt(
         """
             You are an expert resume parser. Extract data from the provided resume and return ONLY valid JSON matching this structure.
 
@@ -46,12 +537,6 @@ public class OllamaService {
               "fullName": "Extract the person's full name ONLY (not address, not company). If not found: 'Name Not Provided'",
               "headline": "Extract current job title or desired role. If not found: 'Professional'",
               "about": "Create a compelling 2-3 sentence professional summary based on experience and skills. If minimal info: 'Seeking opportunities to leverage skills and experience'",
-              "location": "Extract city, state/country. If not found: 'Location Not Specified'",
-              "email": "Extract email address. If not found: 'email@notprovided.com'",
-              "phone": "Extract phone number with formatting. If not found: 'Not Provided'",
-              "linkedin": "Extract LinkedIn URL (must start with http:// or https://). If not found: ''",
-              "github": "Extract GitHub URL (must start with http:// or https://). If not found: ''",
-              "website": "Extract personal website/portfolio URL. If not found: ''",
               "skills": [
                 {
                   "name": "Skill name from resume",
@@ -94,47 +579,100 @@ public class OllamaService {
             - For missing or unclear information, use the specified placeholder text consistently
             - Always return valid JSON with all fields present
 
-            Resume content:
-            %s
-
-            Remember: Return ONLY the JSON object with all required fields, in the exact order specified above. No markdown, no explanations.
             """,
-        resumeText);
+        resumeText,
+        "Remember: Return ONLY the JSON object with all required fields, in the exact order specified above. No markdown, no explanations.");
+  }
 
-    System.out.println(resumeText);
+  private String promptVersion(String baseVersion) {
+    String version = sharedPromptPrefix ? baseVersion + "-prefix" : baseVersion;
+    return sectionParallelParse && baseVersion.equals(PARSE_PROMPT_VERSION) ? version + "-sections" : version;
+  }
+
+  private String layoutPrompt(String instructions, String resumeText, String reminder) {
+    if (sharedPromptPrefix) {
+      return "Resume content:\n" + resumeText + "\n\n" + instructions + reminder + "\n";
+    }
+    return instructions + "Resume content:\n" + resumeText + "\n\n" + reminder + "\n";
+  }
+
+  /**
+   * Portfolio built without the model: contact details from the rule-based
+   * extractor and the start of the text as summary. Used when the model call
+   * fails and as the degraded response while the LLM queue is saturated.
+   */
+  public PortfolioData basicPortfolio(String resumeText) {
+    PortfolioData fallback = new PortfolioData();
+    String name = contactExtractor.inferName(resumeText);
+    fallback.setFullName(name != null ? name : "Unknown");
+    fallback.setHeadline("Resume");
+    fallback.setAbout(resumeText.length() > 400 ? resumeText.substring(0, 400) + "..." : resumeText);
+    contactExtractor.fill(fallback, resumeText);
+    fallback.setSkills(skillTaxonomy.merge(null, resumeText));
+    fallback.setExperience(new java.util.ArrayList<>());
+    fallback.setEducation(new java.util.ArrayList<>());
+    fallback.setProjects(new java.util.ArrayList<>());
+    return fallback;
+  }
+
+  public ResumeAnalysis analyzeResume(String resumeText) {
+    return analyzeResume(resumeText, null, LlmCallContext.interactive(null));
+  }
+
+  public ResumeAnalysis analyzeResume(String resumeText, StreamingJsonFieldParser.Listener listener) {
+    return analyzeResume(resumeText, listener, LlmCallContext.interactive(null));
+  }
+
+  /**
+   * Analyzes the resume; when a listener is given the model output is streamed
+   * and each completed top-level field is reported as soon as it is generated.
+   * Results are served from the content-hash cache unless the context bypasses
+   * it; model calls are admitted through the LLM work scheduler.
+   */
+  public ResumeAnalysis analyzeResume(String resumeText, StreamingJsonFieldParser.Listener listener,
+      LlmCallContext context) {
+    String promptText = textCompactor.compact(resumeText);
+    String promptVersion = promptVersion(ANALYZE_PROMPT_VERSION);
+    String cacheKey = resultCache.key("analysis", ollamaModel, promptVersion, promptText);
+    long cacheStart = System.nanoTime();
+    Optional<ResumeAnalysis> cached = resultCache.get(cacheKey, ResumeAnalysis.class, context.isBypassCache());
+    stageMetrics.record("llm.cache", cacheStart);
+    if (cached.isPresent()) {
+      System.out.println("Resume analysis served from cache");
+      usageStats.recordResult("analyze", ollamaModel, "cached");
+      replayFields(cached.get(), listener);
+      return cached.get();
+    }
+
+    String prompt = buildAnalysisPrompt(promptText);
 
     try {
-      String response = callOllama(prompt);
-      PortfolioData parsed = parseJsonResponse(response, PortfolioData.class);
-      parsed.setFullName(sanitizeFullName(parsed.getFullName(), resumeText));
-      return parsed;
+      String response = generate("analyze", prompt, clampNumPredict(ANALYZE_NUM_PREDICT), listener, context);
+      ResumeAnalysis analysis = parseJsonResponse(response, ResumeAnalysis.class);
+      resultCache.put(cacheKey, "analysis", ollamaModel, promptVersion, analysis);
+      usageStats.recordResult("analyze", ollamaModel, "ok");
+      return analysis;
+    } catch (LlmQueueFullException e) {
+      throw e;
+    } catch (OllamaUnavailableException | LlmDeadlineExceededException e) {
+      if (!context.isFallbackAllowed()) {
+        throw e;
+      }
+      System.out.println("Skipping resume analysis: " + e.getMessage());
+      usageStats.recordResult("analyze", ollamaModel, "fallback");
+      return fallbackAnalysis();
     } catch (Exception e) {
-      System.err.println("Error parsing resume: " + e.getMessage());
-      e.printStackTrace();
-      // Graceful fallback: return a minimal PortfolioData derived from plain text
-      PortfolioData fallback = new PortfolioData();
-      // Try to infer email and name rudimentarily
-      String email = inferEmail(resumeText);
-      String name = inferName(resumeText);
-      fallback.setEmail(email);
-      fallback.setFullName(name != null ? name : "Unknown");
-      fallback.setHeadline("Resume");
-      fallback.setAbout(resumeText.length() > 400 ? resumeText.substring(0, 400) + "..." : resumeText);
-      fallback.setLocation("");
-      fallback.setPhone("");
-      fallback.setLinkedin("");
-      fallback.setGithub("");
-      fallback.setWebsite("");
-      fallback.setSkills(new java.util.ArrayList<>());
-      fallback.setExperience(new java.util.ArrayList<>());
-      fallback.setEducation(new java.util.ArrayList<>());
-      fallback.setProjects(new java.util.ArrayList<>());
-      return fallback;
+      System.err.println("Error analyzing resume: " + e);
+      if (!context.isFallbackAllowed()) {
+        throw new IllegalStateException("Resume analysis failed: " + e.getMessage(), e);
+      }
+      usageStats.recordResult("analyze", ollamaModel, "fallback");
+      return fallbackAnalysis();
     }
   }
 
-  public ResumeAnalysis analyzeResume(String resumeText) {
-    String prompt = String.format(
+  private String buildAnalysisPrompt(String resumeText) {
+    return layoutPrompt(
         """
             You are an expert career advisor and resume analyst. Analyze this candidate's resume and provide detailed career insights.
 
@@ -207,209 +745,235 @@ public class OllamaService {
             ✓ All fields are present in the exact order specified
             ✓ No null or empty values for any required fields
 
-            Resume content:
-            %s
-
-            Remember: Return ONLY the JSON object with ALL required fields properly filled. The weaknesses array is MANDATORY and must contain 3-5 actionable items. No markdown, no explanations.
             """,
-        resumeText);
-
-    try {
-      String response = callOllama(prompt);
-      return parseJsonResponse(response, ResumeAnalysis.class);
-    } catch (Exception e) {
-      System.err.println("Error analyzing resume: " + e.getMessage());
-      e.printStackTrace();
-      // Graceful fallback: minimal analysis
-      ResumeAnalysis fallback = new ResumeAnalysis();
-      fallback.setScore(50);
-      fallback.setSummary("Automated fallback: Unable to analyze via model; showing basic summary.");
-      java.util.List<String> strengths = new java.util.ArrayList<>();
-      strengths.add("Provided resume text parsed successfully.");
-      fallback.setStrengths(strengths);
-      java.util.List<String> weaknesses = new java.util.ArrayList<>();
-      weaknesses.add("AI analysis failed; results limited.");
-      fallback.setWeaknesses(weaknesses);
-      fallback.setMarketOutlook("N/A");
-      fallback.setJobRecommendations(new java.util.ArrayList<>());
-      return fallback;
-    }
-  }
-
-  private String callOllama(String prompt) throws Exception {
-    Map<String, Object> request = new HashMap<>();
-    request.put("model", ollamaModel);
-    request.put("prompt", prompt);
-    request.put("stream", false);
+        resumeText,
+        "Remember: Return ONLY the JSON object with ALL required fields properly filled. The weaknesses array is MANDATORY and must contain 3-5 actionable items. No markdown, no explanations.");
+  }
 
-    // Add options for more consistent and deterministic responses
-    Map<String, Object> options = new HashMap<>();
-    options.put("temperature", 0.3); // Lower temperature for more consistent outputs (default is 0.8)
-    options.put("top_p", 0.9); // Nucleus sampling for better quality
-    options.put("top_k", 40); // Limit token selection for consistency
-    options.put("repeat_penalty", 1.1); // Reduce repetition
-    options.put("num_predict", 2048); // Ensure enough tokens for complete response
-    request.put("options", options);
+  // Graceful fallback: minimal analysis
+  private ResumeAnalysis fallbackAnalysis() {
+    ResumeAnalysis fallback = new ResumeAnalysis();
+    fallback.setScore(50);
+    fallback.setSummary("Automated fallback: Unable to analyze via model; showing basic summary.");
+    java.util.List<String> strengths = new java.util.ArrayList<>();
+    strengths.add("Provided resume text parsed successfully.");
+    fallback.setStrengths(strengths);
+    java.util.List<String> weaknesses = new java.util.ArrayList<>();
+    weaknesses.add("AI analysis failed; results limited.");
+    fallback.setWeaknesses(weaknesses);
+    fallback.setMarketOutlook("N/A");
+    fallback.setJobRecommendations(new java.util.ArrayList<>());
+    return fallback;
+  }
 
-    HttpHeaders headers = new HttpHeaders();
-    headers.setContentType(MediaType.APPLICATION_JSON);
+  /**
+   * Runs one model call through the work scheduler and the circuit breaker.
+   * Fails fast (OllamaUnavailableException) while the circuit is open and
+   * (LlmDeadlineExceededException) when the request deadline is nearly spent;
+   * otherwise the call's timeout is cut to the time left.
+   */
+  private String generate(String operation, String prompt, int numPredict,
+      StreamingJsonFieldParser.Listener listener, LlmCallContext context) throws Exception {
+    circuitBreaker.check();
+    callBudgetMs(operation, context);
+    byte[] body = objectMapper.writeValueAsBytes(buildRequest(operation, prompt, numPredict, listener != null));
+    long queuedAt = System.nanoTime();
+    return workScheduler.run(context, () -> {
+      stageMetrics.record("llm.queue", queuedAt);
+      long timeoutMs = callBudgetMs(operation, context);
+      boolean probe = circuitBreaker.acquire();
+      long start = System.nanoTime();
+      boolean ok = false;
+      try {
+        String response = listener == null
+            ? callOllama(operation, body, timeoutMs)
+            : streamOllama(operation, body, listener, timeoutMs);
+        circuitBreaker.onSuccess();
+        ok = true;
+        return response;
+      } catch (InterruptedException e) {
+        circuitBreaker.ignore(probe);
+        throw e;
+      } catch (Exception e) {
+        if (context.isExpired()) {
+          circuitBreaker.ignore(probe);
+          throw new LlmDeadlineExceededException("Request deadline passed during " + operation);
+        }
+        if (Thread.currentThread().isInterrupted()) {
+          circuitBreaker.ignore(probe);
+        } else {
+          circuitBreaker.onFailure();
+        }
+        throw e;
+      } finally {
+        usageStats.recordCall(operation, ollamaModel, ok, System.nanoTime() - start);
+        stageMetrics.record("llm." + operation, start);
+      }
+    });
+  }
 
-    HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
+  /** Time the call may take (0 = client default), or throws when too little is left. */
+  private long callBudgetMs(String operation, LlmCallContext context) {
+    if (!context.hasDeadline()) {
+      return 0;
+    }
+    long remaining = context.remainingMs();
+    if (remaining < minCallBudgetMs) {
+      throw new LlmDeadlineExceededException(
+          "only " + Math.max(0, remaining) + " ms left of the request deadline for " + operation);
+    }
+    return remaining;
+  }
 
-    ResponseEntity<String> response = restTemplate.exchange(
-        ollamaUrl,
-        HttpMethod.POST,
-        entity,
-        String.class);
+  private String callOllama(String operation, byte[] body, long timeoutMs) throws Exception {
 
-    if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-      JsonNode jsonNode = objectMapper.readTree(response.getBody());
+    // Non-streaming calls are idempotent, so they may be hedged on a second backend
+    String response = endpointPool.execute(url -> ollamaHttpClient.postJson(url, body, clientResponse -> {
+      if (clientResponse.getStatusCode() != HttpStatus.OK) {
+        return null;
+      }
+      JsonNode jsonNode = objectMapper.readTree(clientResponse.getBody());
+      usageStats.record(operation, ollamaModel, jsonNode);
       return jsonNode.get("response").asText();
+    }, timeoutMs), true);
+
+    if (response != null) {
+      return response;
     }
 
     throw new Exception("Failed to get response from Ollama");
   }
 
-  private <T> T parseJsonResponse(String text, Class<T> clazz) throws Exception {
-    // Clean up markdown formatting
-    text = text.replaceAll("```json", "").replaceAll("```", "").trim();
-
-    // Find JSON object in the response
-    Pattern pattern = Pattern.compile("\\{[\\s\\S]*\\}", Pattern.DOTALL);
-    Matcher matcher = pattern.matcher(text);
-
-    if (matcher.find()) {
-      String jsonText = matcher.group();
-      // Normalize model quirks before strict deserialization
-      if (clazz == com.portfolio.backend.dto.PortfolioData.class) {
-        // First, lenient text-level fixes to make JSON parseable
-        jsonText = normalizeSkillLevelsLenient(jsonText);
-        // Then, strict normalization via JSON tree
-        jsonText = normalizeSkillLevels(jsonText);
+  /**
+   * Streaming variant of callOllama: reads Ollama's NDJSON chunks as they
+   * arrive, feeds them to an incremental JSON parser and returns the full
+   * generated text once the model reports done.
+   */
+  private String streamOllama(String operation, byte[] body, StreamingJsonFieldParser.Listener listener,
+      long timeoutMs) throws Exception {
+    StreamingJsonFieldParser fieldParser = new StreamingJsonFieldParser(objectMapper, listener);
+
+    String generated = endpointPool.execute(url -> ollamaHttpClient.postJson(url, body, response -> {
+      if (response.getStatusCode() != HttpStatus.OK) {
+        return null;
+      }
+      StringBuilder text = new StringBuilder();
+      try (BufferedReader reader = new BufferedReader(
+          new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (line.isBlank()) {
+            continue;
+          }
+          JsonNode chunk = objectMapper.readTree(line);
+          if (chunk.hasNonNull("error")) {
+            throw new IOException("Ollama error: " + chunk.get("error").asText());
+          }
+          String token = chunk.path("response").asText("");
+          text.append(token);
+          fieldParser.feed(token);
+          if (chunk.path("done").asBoolean(false)) {
+            // The final chunk carries the timing and token statistics
+            usageStats.record(operation, ollamaModel, chunk);
+            break;
+          }
+        }
       }
-      return objectMapper.readValue(jsonText, clazz);
+      return text.toString();
+    }, timeoutMs));
+
+    if (generated != null) {
+      return generated;
     }
 
-    throw new Exception("No valid JSON found in response");
+    throw new Exception("Failed to get response from Ollama");
   }
 
   /**
-   * Lenient normalization using regex so obviously invalid forms (e.g., level:
-   * 70-90 without quotes)
-   * become parseable JSON before tree-based processing.
+   * Reports a cached result to a streaming listener in the same shape the
+   * incremental parser would have produced.
    */
-  private String normalizeSkillLevelsLenient(String jsonText) {
-    try {
-      // Pass 1: level: 70-90 (no quotes)
-      jsonText = replaceLevelPattern(jsonText, "\\\"level\\\"\\s*:\\s*(\\d{1,3})\\s*[-–]\\s*(\\d{1,3})", false);
-      // Pass 2: level: \"70-90\"
-      jsonText = replaceLevelPattern(jsonText, "\\\"level\\\"\\s*:\\s*\\\"(\\d{1,3})\\s*[-–]\\s*(\\d{1,3})\\\"", true);
-      // Pass 3: level: \"80%\"
-      jsonText = replaceSingleNumberPattern(jsonText, "\\\"level\\\"\\s*:\\s*\\\"(\\d{1,3})%\\\"", true);
-      // Pass 4: level: \"80\"
-      jsonText = replaceSingleNumberPattern(jsonText, "\\\"level\\\"\\s*:\\s*\\\"(\\d{1,3})\\\"", true);
-    } catch (Exception e) {
-      System.err.println("normalizeSkillLevelsLenient(): " + e.getMessage());
+  private void replayFields(Object value, StreamingJsonFieldParser.Listener listener) {
+    if (listener == null) {
+      return;
     }
-    return jsonText;
+    JsonNode root = objectMapper.valueToTree(value);
+    root.fields().forEachRemaining(field -> {
+      JsonNode node = field.getValue();
+      if (node.isArray()) {
+        for (int i = 0; i < node.size(); i++) {
+          listener.onField(field.getKey() + "[" + i + "]", node.get(i));
+        }
+      }
+      listener.onField(field.getKey(), node);
+    });
   }
 
-  private String replaceLevelPattern(String input, String regex, boolean quoted) {
-    StringBuffer sb = new StringBuffer();
-    Matcher m = Pattern.compile(regex).matcher(input);
-    while (m.find()) {
-      int a = Integer.parseInt(m.group(1));
-      int b = Integer.parseInt(m.group(2));
-      int avg = Math.max(0, Math.min(100, (a + b) / 2));
-      String replacement = "\"level\": " + avg;
-      m.appendReplacement(sb, Matcher.quoteReplacement(replacement));
+  private Map<String, Object> buildRequest(String operation, String prompt, int numPredict, boolean stream) {
+    Map<String, Object> request = new HashMap<>();
+    request.put("model", ollamaModel);
+    request.put("prompt", prompt);
+    request.put("stream", stream);
+    if (!keepAlive.isBlank()) {
+      request.put("keep_alive", keepAlive);
     }
-    m.appendTail(sb);
-    return sb.toString();
+    if (structuredOutput && outputSchemas.containsKey(operation)) {
+      request.put("format", outputSchemas.get(operation));
+    }
+
+    // Add options for more consistent and deterministic responses
+    Map<String, Object> options = new HashMap<>();
+    options.put("temperature", 0.3); // Lower temperature for more consistent outputs (default is 0.8)
+    options.put("top_p", 0.9); // Nucleus sampling for better quality
+    options.put("top_k", 40); // Limit token selection for consistency
+    options.put("repeat_penalty", 1.1); // Reduce repetition
+    int contextSize = contextSize();
+    int room = contextSize - ResumeTextCompactor.estimateTokens(prompt);
+    // Enough tokens for a complete response, within what the fixed window leaves after the prompt
+    options.put("num_predict", Math.max(MIN_SECTION_NUM_PREDICT, Math.min(numPredict, room)));
+    options.put("num_ctx", contextSize);
+    request.put("options", options);
+    return request;
   }
 
-  private String replaceSingleNumberPattern(String input, String regex, boolean quoted) {
-    StringBuffer sb = new StringBuffer();
-    Matcher m = Pattern.compile(regex).matcher(input);
-    while (m.find()) {
-      int n = Integer.parseInt(m.group(1));
-      int v = Math.max(0, Math.min(100, n));
-      String replacement = "\"level\": " + v;
-      m.appendReplacement(sb, Matcher.quoteReplacement(replacement));
-    }
-    m.appendTail(sb);
-    return sb.toString();
+  /** Keeps a num_predict estimate within ollama.num-predict.min/max. */
+  private int clampNumPredict(int numPredict) {
+    return Math.max(minNumPredict, Math.min(maxNumPredict, numPredict));
   }
 
   /**
-   * Strict normalization via JSON tree: converts textual level values to
-   * integers.
+   * The num_ctx sent with every call (ollama.num-ctx, at most
+   * ollama.num-ctx.max). It is never sized per request: Ollama reloads the
+   * model when num_ctx changes, so concurrent calls with different windows
+   * would keep evicting each other's runner.
    */
-  private String normalizeSkillLevels(String jsonText) {
-    try {
-      JsonNode root = objectMapper.readTree(jsonText);
-      if (root instanceof ObjectNode objectNode) {
-        JsonNode skillsNode = objectNode.get("skills");
-        if (skillsNode instanceof ArrayNode arrayNode) {
-          for (int i = 0; i < arrayNode.size(); i++) {
-            JsonNode skill = arrayNode.get(i);
-            if (skill instanceof ObjectNode skillObj) {
-              JsonNode levelNode = skillObj.get("level");
-              if (levelNode != null && levelNode.isTextual()) {
-                int normalized = coerceLevelToInt(levelNode.asText());
-                skillObj.set("level", IntNode.valueOf(normalized));
-              }
-            }
-          }
-        }
-      }
-      return objectMapper.writeValueAsString(root);
-    } catch (Exception e) {
-      System.err.println("normalizeSkillLevels(): " + e.getMessage());
-      return jsonText;
-    }
+  public int contextSize() {
+    return Math.min(numCtx, maxNumCtx);
   }
 
   /**
-   * Extracts an integer from textual level representations. Handles:
-   * - Ranges like "70-90" (uses average)
-   * - Percent like "80%" (uses 80)
-   * - Descriptive text containing a number, uses the first number
-   * Bounds result to [0, 100].
+   * Deserializes the model output in one pass: JsonRepairReader strips any
+   * surrounding chatter and quotes bare ranges while Jackson reads from it, and
+   * the DTO deserializers coerce loose numeric values.
    */
-  private int coerceLevelToInt(String text) {
-    if (text == null || text.isBlank())
-      return 60; // reasonable default
-    try {
-      // Range pattern: e.g., 70-90
-      Matcher range = Pattern.compile("(\\d{1,3})\\s*[-–]\\s*(\\d{1,3})").matcher(text);
-      if (range.find()) {
-        int a = Integer.parseInt(range.group(1));
-        int b = Integer.parseInt(range.group(2));
-        int avg = (a + b) / 2;
-        return Math.max(0, Math.min(100, avg));
-      }
-      // Percent or plain number embedded
-      Matcher num = Pattern.compile("(\\d{1,3})").matcher(text);
-      if (num.find()) {
-        int n = Integer.parseInt(num.group(1));
-        return Math.max(0, Math.min(100, n));
+  private <T> T parseJsonResponse(String text, Class<T> clazz) throws Exception {
+    try (Reader reader = new JsonRepairReader(text)) {
+      T value = objectMapper.readValue(reader, clazz);
+      if (value == null) {
+        throw new Exception("No valid JSON found in response");
       }
-    } catch (Exception ignored) {
+      return value;
     }
-    return 60;
   }
 
   private String sanitizeFullName(String rawName, String resumeText) {
     String name = rawName != null ? rawName.trim() : "";
-    boolean looksLikeAddress = name.matches(
-        ".*(Street|St\\.?|Road|Rd\\.?|Avenue|Ave\\.?|Lane|Ln\\.?|Blvd|Apartment|Apt|Suite|Unit|PO Box|P\\.?O\\.? Box).*?")
-        || name.matches(".*\\d+.*");
+    boolean looksLikeAddress = ADDRESS_PATTERN.matcher(name).matches() || DIGIT_PATTERN.matcher(name).find();
     boolean tooLong = name.length() > 80;
     boolean missing = name.isEmpty();
 
     if (missing || looksLikeAddress || tooLong || name.contains("@")) {
-      String inferred = inferName(resumeText);
+      String inferred = contactExtractor.inferName(resumeText);
       if (inferred != null && !inferred.isBlank()) {
         return inferred;
       }
@@ -417,32 +981,4 @@ public class OllamaService {
     }
     return name;
   }
-
-  // Very lightweight heuristics to infer an email and name from raw text
-  private String inferEmail(String text) {
-    try {
-      java.util.regex.Matcher m = java.util.regex.Pattern
-          .compile("[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}").matcher(text);
-      if (m.find())
-        return m.group();
-    } catch (Exception ignored) {
-    }
-    return null;
-  }
-
-  private String inferName(String text) {
-    try {
-      // Assume first non-empty line could be a name (simple heuristic)
-      String[] lines = text.split("\r?\n");
-      for (String line : lines) {
-        String trimmed = line.trim();
-        if (trimmed.length() >= 3 && trimmed.length() <= 80 && !trimmed.contains("@")
-            && !trimmed.matches(".*\\d.*")) {
-          return trimmed;
-        }
-      }
-    } catch (Exception ignored) {
-    }
-    return null;
-  }
 }
@@ -0,0 +1,21 @@
+package com.portfolio.backend.service;
+
+/**
+ * Thrown without contacting Ollama while the circuit breaker is open. The
+ * parse and analysis calls answer it with their fallback results.
+ */
+public class OllamaUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public OllamaUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
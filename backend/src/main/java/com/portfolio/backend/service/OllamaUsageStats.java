@@ -0,0 +1,173 @@
+package com.portfolio.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running totals of Ollama's prompt-evaluation statistics per operation, taken
+ * from the final response object of each generation. Makes the effect of
+ * prompt-prefix reuse visible: a reused prefix shows up as fewer evaluated
+ * prompt tokens and less prompt_eval_duration per call. load_duration shows
+ * calls that had to wait for the model to be loaded.
+ *
+ * The same statistics are published to Micrometer (Prometheus at
+ * /actuator/prometheus) as histograms tagged by operation and model, with
+ * tokens-per-second gauges of the latest call. The wall time of each call and
+ * the parse/analysis results are additionally tagged by outcome.
+ */
+@Component
+public class OllamaUsageStats {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Totals> byOperation = new ConcurrentHashMap<>();
+    private final Map<String, Rates> rates = new ConcurrentHashMap<>();
+
+    public OllamaUsageStats(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** Records the statistics of a finished generation (Ollama's final response object). */
+    public void record(String operation, String model, JsonNode response) {
+        if (response == null) {
+            return;
+        }
+        long promptEvalCount = response.path("prompt_eval_count").asLong(0);
+        long promptEvalNanos = response.path("prompt_eval_duration").asLong(0);
+        long evalCount = response.path("eval_count").asLong(0);
+        long evalNanos = response.path("eval_duration").asLong(0);
+        long loadNanos = response.path("load_duration").asLong(0);
+        long totalNanos = response.path("total_duration").asLong(0);
+        Totals totals = byOperation.computeIfAbsent(operation, k -> new Totals());
+        totals.calls.incrementAndGet();
+        totals.promptEvalCount.addAndGet(promptEvalCount);
+        totals.promptEvalNanos.addAndGet(promptEvalNanos);
+        totals.evalCount.addAndGet(evalCount);
+        totals.evalNanos.addAndGet(evalNanos);
+        totals.loadNanos.addAndGet(loadNanos);
+        totals.maxLoadNanos.accumulateAndGet(loadNanos, Math::max);
+        System.out.println("Ollama " + operation + ": prompt_eval_count=" + promptEvalCount
+                + ", prompt_eval_duration=" + (promptEvalNanos / 1_000_000) + "ms"
+                + ", eval_count=" + evalCount + ", eval_duration=" + (evalNanos / 1_000_000) + "ms"
+                + ", load_duration=" + (loadNanos / 1_000_000) + "ms");
+
+        Tags tags = Tags.of("operation", operation, "model", model);
+        timer("ollama.load.duration", "Time Ollama spent loading the model", tags).record(loadNanos,
+                TimeUnit.NANOSECONDS);
+        timer("ollama.prompt.eval.duration", "Time Ollama spent evaluating the prompt", tags)
+                .record(promptEvalNanos, TimeUnit.NANOSECONDS);
+        timer("ollama.eval.duration", "Time Ollama spent generating", tags).record(evalNanos, TimeUnit.NANOSECONDS);
+        timer("ollama.total.duration", "Total time reported by Ollama", tags).record(totalNanos,
+                TimeUnit.NANOSECONDS);
+        tokens("ollama.prompt.tokens", "Prompt tokens evaluated per call", tags).record(promptEvalCount);
+        tokens("ollama.eval.tokens", "Tokens generated per call", tags).record(evalCount);
+
+        Rates rate = rates.computeIfAbsent(operation + "|" + model, k -> registerRates(tags));
+        if (promptEvalNanos > 0) {
+            rate.promptTokensPerSecond = promptEvalCount * 1e9 / promptEvalNanos;
+        }
+        if (evalNanos > 0) {
+            rate.evalTokensPerSecond = evalCount * 1e9 / evalNanos;
+        }
+    }
+
+    /** Wall time of one model call as seen by this service, successful or not. */
+    public void recordCall(String operation, String model, boolean ok, long elapsedNanos) {
+        Timer.builder("ollama.call.duration")
+                .description("Wall time of Ollama calls")
+                .tags("operation", operation, "model", model, "outcome", ok ? "ok" : "error")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Outcome of a parse or analysis: ok, cached or fallback (model not used or failed). */
+    public void recordResult(String operation, String model, String outcome) {
+        Counter.builder("ollama.results")
+                .description("Parse and analysis results by outcome")
+                .tags("operation", operation, "model", model, "outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Timer timer(String name, String description, Tags tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary tokens(String name, String description, Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit("tokens")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(16384.0)
+                .register(meterRegistry);
+    }
+
+    private Rates registerRates(Tags tags) {
+        Rates rate = new Rates();
+        Gauge.builder("ollama.prompt.tokens.per.second", rate, r -> r.promptTokensPerSecond)
+                .description("Prompt evaluation rate of the latest call")
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("ollama.eval.tokens.per.second", rate, r -> r.evalTokensPerSecond)
+                .description("Generation rate of the latest call")
+                .tags(tags)
+                .register(meterRegistry);
+        return rate;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        byOperation.forEach((operation, totals) -> {
+            long calls = totals.calls.get();
+            Map<String, Object> op = new LinkedHashMap<>();
+            op.put("calls", calls);
+            op.put("promptEvalCount", totals.promptEvalCount.get());
+            op.put("promptEvalMs", totals.promptEvalNanos.get() / 1_000_000);
+            op.put("avgPromptEvalCount", calls == 0 ? 0 : totals.promptEvalCount.get() / calls);
+            op.put("avgPromptEvalMs", calls == 0 ? 0 : totals.promptEvalNanos.get() / 1_000_000 / calls);
+            op.put("evalCount", totals.evalCount.get());
+            op.put("evalMs", totals.evalNanos.get() / 1_000_000);
+            op.put("evalTokensPerSecond", totals.evalNanos.get() == 0 ? 0
+                    : Math.round(totals.evalCount.get() * 1e9 / totals.evalNanos.get()));
+            op.put("loadMs", totals.loadNanos.get() / 1_000_000);
+            op.put("maxLoadMs", totals.maxLoadNanos.get() / 1_000_000);
+            stats.put(operation, op);
+        });
+        return stats;
+    }
+
+    private static final class Totals {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong promptEvalCount = new AtomicLong();
+        private final AtomicLong promptEvalNanos = new AtomicLong();
+        private final AtomicLong evalCount = new AtomicLong();
+        private final AtomicLong evalNanos = new AtomicLong();
+        private final AtomicLong loadNanos = new AtomicLong();
+        private final AtomicLong maxLoadNanos = new AtomicLong();
+    }
+
+    private static final class Rates {
+        private volatile double promptTokensPerSecond;
+        private volatile double evalTokensPerSecond;
+    }
+}
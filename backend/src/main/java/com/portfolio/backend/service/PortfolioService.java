@@ -1,5 +1,6 @@
 package com.portfolio.backend.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.portfolio.backend.dto.ParseResponse;
 import com.portfolio.backend.dto.PortfolioData;
@@ -10,10 +11,21 @@ import com.portfolio.backend.repository.PortfolioRepository;
 import com.portfolio.backend.repository.UserRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class PortfolioService {
@@ -21,91 +33,220 @@ public class PortfolioService {
     private final PortfolioRepository portfolioRepository;
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
+    private final StageMetrics stageMetrics;
     private static final String UPLOAD_DIR = "uploads/resumes/";
+    // Inside the upload directory, so moving a staged upload into place is a rename
+    private static final String STAGING_DIR = UPLOAD_DIR + ".staging/";
 
-    public PortfolioService(PortfolioRepository portfolioRepository, UserRepository userRepository) {
+    public PortfolioService(PortfolioRepository portfolioRepository, UserRepository userRepository,
+            StageMetrics stageMetrics) {
         this.portfolioRepository = portfolioRepository;
         this.userRepository = userRepository;
+        this.stageMetrics = stageMetrics;
         this.objectMapper = new ObjectMapper();
         // Create upload directory if it doesn't exist
         try {
             Files.createDirectories(Paths.get(UPLOAD_DIR));
+            Files.createDirectories(Paths.get(STAGING_DIR));
         } catch (Exception e) {
             System.err.println("Could not create upload directory: " + e.getMessage());
         }
     }
 
-    public Portfolio savePortfolio(ParseResponse parseResponse, MultipartFile resumeFile) {
+    /**
+     * Streams the upload once into the staging directory, hashing it on the
+     * way. The caller extracts from the staged file, passes it on to
+     * savePortfolio() (which moves it into place) and discards it afterwards.
+     */
+    public StagedResumeFile stageUpload(MultipartFile file) throws IOException {
+        long start = System.nanoTime();
+        Path staged = Paths.get(STAGING_DIR).resolve(UUID.randomUUID() + extension(file.getOriginalFilename()));
+        Files.createDirectories(staged.getParent());
+        try (InputStream in = file.getInputStream()) {
+            String sha256 = copyHashed(in, staged);
+            return new StagedResumeFile(staged, file.getOriginalFilename(), file.getContentType(),
+                    Files.size(staged), sha256);
+        } catch (IOException | RuntimeException e) {
+            deleteIfExists(staged);
+            throw e;
+        } finally {
+            stageMetrics.record("upload.stage", start);
+        }
+    }
+
+    /** Deletes the staged file unless savePortfolio() already moved it into place. */
+    public void discardUpload(MultipartFile file) {
+        if (file instanceof StagedResumeFile staged) {
+            deleteIfExists(staged.getPath());
+        }
+    }
+
+    public Portfolio savePortfolio(ParseResponse parseResponse, MultipartFile resumeFile,
+            ResumeFingerprint fingerprint) {
         try {
             PortfolioData data = parseResponse.getPortfolio();
             ResumeAnalysis analysis = parseResponse.getAnalysis();
 
             // User must exist to create/update portfolio
+            long lookupStart = System.nanoTime();
             User user = userRepository.findByEmail(data.getEmail())
                     .orElseThrow(() -> new RuntimeException("User not found. Please register first."));
 
             // Check if portfolio already exists for this user
             Portfolio portfolio = portfolioRepository.findByEmailIgnoreCase(data.getEmail())
                     .orElse(new Portfolio());
+            stageMetrics.record("save.portfolio.lookup", lookupStart);
 
-            // Link portfolio to user
-            portfolio.setUser(user);
-
-            // Map portfolio data
-            portfolio.setFullName(data.getFullName());
-            portfolio.setHeadline(data.getHeadline());
-            portfolio.setAbout(data.getAbout());
-            portfolio.setLocation(data.getLocation());
-            portfolio.setEmail(data.getEmail());
-            portfolio.setPhone(data.getPhone());
-            portfolio.setLinkedin(data.getLinkedin());
-            portfolio.setGithub(data.getGithub());
-            portfolio.setWebsite(data.getWebsite());
-
-            // Convert lists to JSON strings
-            portfolio.setSkillsJson(objectMapper.writeValueAsString(data.getSkills()));
-            portfolio.setExperienceJson(objectMapper.writeValueAsString(data.getExperience()));
-            portfolio.setEducationJson(objectMapper.writeValueAsString(data.getEducation()));
-            portfolio.setProjectsJson(objectMapper.writeValueAsString(data.getProjects()));
-
-            // Map analysis data
-            portfolio.setResumeScore(analysis.getScore());
-            portfolio.setResumeSummary(analysis.getSummary());
-            portfolio.setStrengthsJson(objectMapper.writeValueAsString(analysis.getStrengths()));
-            portfolio.setWeaknessesJson(objectMapper.writeValueAsString(analysis.getWeaknesses()));
-            portfolio.setMarketOutlook(analysis.getMarketOutlook());
-            portfolio.setJobRecommendationsJson(objectMapper.writeValueAsString(analysis.getJobRecommendations()));
+            applyResult(portfolio, user, data, analysis, fingerprint);
 
             // Save resume file if provided (replace previous both in storage and DB)
             if (resumeFile != null && !resumeFile.isEmpty()) {
-                String originalFilename = resumeFile.getOriginalFilename();
-                String extension = (originalFilename != null && originalFilename.contains("."))
-                        ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                        : ".pdf";
-
-                // Use stable filename per user so each upload overwrites the last
-                String filename = user.getId() + "_resume" + extension;
-                Path uploadDir = Paths.get(UPLOAD_DIR);
-                Files.createDirectories(uploadDir);
-
-                // Delete previous file if it exists and is different
-                if (portfolio.getResumeFilePath() != null) {
-                    Path oldPath = uploadDir.resolve(portfolio.getResumeFilePath());
-                    deleteIfExists(oldPath);
-                }
-
-                Path filePath = uploadDir.resolve(filename);
-                Files.copy(resumeFile.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-                portfolio.setResumeFilePath(filename);
+                long copyStart = System.nanoTime();
+                storeResumeFile(portfolio, user, resumeFile);
+                stageMetrics.record("save.portfolio.file-copy", copyStart);
             }
 
-            return portfolioRepository.save(portfolio);
+            long saveStart = System.nanoTime();
+            try {
+                return portfolioRepository.save(portfolio);
+            } finally {
+                stageMetrics.record("save.portfolio.db", saveStart);
+            }
         } catch (Exception e) {
             System.err.println("Error saving portfolio: " + e.getMessage());
             throw new RuntimeException("Failed to save portfolio", e);
         }
     }
 
+    private void applyResult(Portfolio portfolio, User user, PortfolioData data, ResumeAnalysis analysis,
+            ResumeFingerprint fingerprint) throws JsonProcessingException {
+        // Link portfolio to user
+        portfolio.setUser(user);
+
+        // Map portfolio data
+        portfolio.setFullName(data.getFullName());
+        portfolio.setHeadline(data.getHeadline());
+        portfolio.setAbout(data.getAbout());
+        portfolio.setLocation(data.getLocation());
+        portfolio.setEmail(data.getEmail());
+        portfolio.setPhone(data.getPhone());
+        portfolio.setLinkedin(data.getLinkedin());
+        portfolio.setGithub(data.getGithub());
+        portfolio.setWebsite(data.getWebsite());
+
+        // Convert lists to JSON strings
+        portfolio.setSkillsJson(objectMapper.writeValueAsString(data.getSkills()));
+        portfolio.setExperienceJson(objectMapper.writeValueAsString(data.getExperience()));
+        portfolio.setEducationJson(objectMapper.writeValueAsString(data.getEducation()));
+        portfolio.setProjectsJson(objectMapper.writeValueAsString(data.getProjects()));
+
+        // Map analysis data
+        portfolio.setResumeScore(analysis.getScore());
+        portfolio.setResumeSummary(analysis.getSummary());
+        portfolio.setStrengthsJson(objectMapper.writeValueAsString(analysis.getStrengths()));
+        portfolio.setWeaknessesJson(objectMapper.writeValueAsString(analysis.getWeaknesses()));
+        portfolio.setMarketOutlook(analysis.getMarketOutlook());
+        portfolio.setJobRecommendationsJson(objectMapper.writeValueAsString(analysis.getJobRecommendations()));
+
+        portfolio.setSectionFingerprints(fingerprint != null ? fingerprint.toJson() : null);
+    }
+
+    /** Portfolio data as it was parsed, read back from the saved columns. */
+    public PortfolioData toPortfolioData(Portfolio portfolio) throws JsonProcessingException {
+        PortfolioData data = new PortfolioData();
+        data.setId(portfolio.getId());
+        data.setFullName(portfolio.getFullName());
+        data.setHeadline(portfolio.getHeadline());
+        data.setAbout(portfolio.getAbout());
+        data.setLocation(portfolio.getLocation());
+        data.setEmail(portfolio.getEmail());
+        data.setPhone(portfolio.getPhone());
+        data.setLinkedin(portfolio.getLinkedin());
+        data.setGithub(portfolio.getGithub());
+        data.setWebsite(portfolio.getWebsite());
+        data.setSkills(readList(portfolio.getSkillsJson(), PortfolioData.Skill.class));
+        data.setExperience(readList(portfolio.getExperienceJson(), PortfolioData.Experience.class));
+        data.setEducation(readList(portfolio.getEducationJson(), PortfolioData.Education.class));
+        data.setProjects(readList(portfolio.getProjectsJson(), PortfolioData.Project.class));
+        return data;
+    }
+
+    /** The saved analysis of the portfolio. */
+    public ResumeAnalysis toAnalysis(Portfolio portfolio) throws JsonProcessingException {
+        ResumeAnalysis analysis = new ResumeAnalysis();
+        analysis.setScore(portfolio.getResumeScore());
+        analysis.setSummary(portfolio.getResumeSummary());
+        analysis.setStrengths(readList(portfolio.getStrengthsJson(), String.class));
+        analysis.setWeaknesses(readList(portfolio.getWeaknessesJson(), String.class));
+        analysis.setMarketOutlook(portfolio.getMarketOutlook());
+        analysis.setJobRecommendations(
+                readList(portfolio.getJobRecommendationsJson(), ResumeAnalysis.JobRecommendation.class));
+        return analysis;
+    }
+
+    private <T> List<T> readList(String json, Class<T> type) throws JsonProcessingException {
+        if (json == null || json.isBlank() || json.equals("null")) {
+            return new ArrayList<>();
+        }
+        return objectMapper.readValue(json, objectMapper.getTypeFactory().constructCollectionType(List.class, type));
+    }
+
+    private void storeResumeFile(Portfolio portfolio, User user, MultipartFile resumeFile) throws IOException {
+        Path uploadDir = Paths.get(UPLOAD_DIR);
+        Path oldPath = portfolio.getResumeFilePath() != null ? uploadDir.resolve(portfolio.getResumeFilePath())
+                : null;
+        StagedResumeFile staged = resumeFile instanceof StagedResumeFile stagedFile ? stagedFile : null;
+
+        // Same content as the saved file: nothing to write
+        if (staged != null && oldPath != null && Files.exists(oldPath)
+                && staged.getSha256().equals(portfolio.getResumeFileSha256())) {
+            return;
+        }
+
+        // Use stable filename per user so each upload overwrites the last
+        String filename = user.getId() + "_resume" + extension(resumeFile.getOriginalFilename());
+        Files.createDirectories(uploadDir);
+
+        // Delete previous file if it exists and is different
+        if (oldPath != null) {
+            deleteIfExists(oldPath);
+        }
+
+        Path filePath = uploadDir.resolve(filename);
+        if (staged != null) {
+            try {
+                Files.move(staged.getPath(), filePath, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(staged.getPath(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            portfolio.setResumeFileSha256(staged.getSha256());
+        } else {
+            try (InputStream in = resumeFile.getInputStream()) {
+                portfolio.setResumeFileSha256(copyHashed(in, filePath));
+            }
+        }
+        portfolio.setResumeFilePath(filename);
+    }
+
+    /** Copies the stream to target and returns the SHA-256 (hex) of what was copied. */
+    private static String copyHashed(InputStream in, Path target) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        Files.copy(new DigestInputStream(in, digest), target, StandardCopyOption.REPLACE_EXISTING);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String extension(String originalFilename) {
+        return (originalFilename != null && originalFilename.contains("."))
+                ? originalFilename.substring(originalFilename.lastIndexOf("."))
+                : ".pdf";
+    }
+
     private void deleteIfExists(Path path) {
         try {
             if (Files.exists(path)) {
@@ -128,6 +269,10 @@ public class PortfolioService {
                 .orElseThrow(() -> new RuntimeException("Portfolio not found with email: " + email));
     }
 
+    public Optional<Portfolio> findPortfolioByEmail(String email) {
+        return portfolioRepository.findByEmailIgnoreCase(email);
+    }
+
     public void deletePortfolioByEmail(String email) {
         portfolioRepository.findByEmailIgnoreCase(email).ifPresent(p -> {
             // Delete file first
@@ -0,0 +1,110 @@
+package com.portfolio.backend.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+/**
+ * Stage timings of one resume request, identified by a short trace id. The
+ * trace is bound to the request thread, and wrap() carries it to the pool
+ * threads that run the analysis and the section calls. StageMetrics adds
+ * every timed stage to the trace bound to the current thread (if any).
+ * Stages that run concurrently (parse and analysis) are summed separately,
+ * so they can add up to more than the total.
+ */
+public class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final String id = UUID.randomUUID().toString().substring(0, 8);
+    private final long startNanos = System.nanoTime();
+    private final Map<String, long[]> stages = new LinkedHashMap<>();
+
+    /** Starts a trace and binds it to the current thread. */
+    public static RequestTrace start() {
+        RequestTrace trace = new RequestTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /** Runs the callable with the current thread's trace bound to whichever thread calls it. */
+    public static <T> Callable<T> wrap(Callable<T> callable) {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null) {
+            return callable;
+        }
+        return () -> {
+            RequestTrace previous = CURRENT.get();
+            CURRENT.set(trace);
+            try {
+                return callable.call();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    synchronized void add(String stage, long nanos) {
+        long[] totals = stages.computeIfAbsent(stage, k -> new long[2]);
+        totals[0] += nanos;
+        totals[1]++;
+    }
+
+    public long elapsedMs() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /** Timings as a Server-Timing header value, e.g. "extract;dur=12.4, llm.parse;dur=3120.0". */
+    public synchronized String serverTiming() {
+        StringBuilder sb = new StringBuilder();
+        stages.forEach((stage, totals) -> {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(stage.replaceAll("[^A-Za-z0-9._-]", "-"))
+                    .append(";dur=").append(Math.round(totals[0] / 100_000.0) / 10.0);
+        });
+        if (sb.length() > 0) {
+            sb.append(", ");
+        }
+        return sb.append("total;dur=").append(elapsedMs()).toString();
+    }
+
+    /** Timings in milliseconds per stage, with call counts for stages that ran more than once. */
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> timings = new LinkedHashMap<>();
+        stages.forEach((stage, totals) -> timings.put(stage, totals[1] > 1
+                ? Map.of("ms", totals[0] / 1_000_000, "count", totals[1])
+                : totals[0] / 1_000_000));
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("traceId", id);
+        map.put("totalMs", elapsedMs());
+        map.put("stages", timings);
+        return map;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder("Trace ").append(id).append(": total=").append(elapsedMs()).append("ms");
+        stages.forEach((stage, totals) -> sb.append(", ").append(stage).append('=')
+                .append(totals[0] / 1_000_000).append("ms"));
+        return sb.toString();
+    }
+}
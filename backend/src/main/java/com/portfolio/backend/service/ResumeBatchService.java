@@ -0,0 +1,389 @@
+package com.portfolio.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.backend.dto.ParseResponse;
+import com.portfolio.backend.entity.BatchResumeResult;
+import com.portfolio.backend.entity.Employer;
+import com.portfolio.backend.repository.BatchResumeResultRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Bulk ingestion for /api/resume/batch. ZIP entries are read one at a time
+ * from the upload stream and at most resume.batch.parallelism of them are in
+ * flight per request, so memory stays flat however large the archive is.
+ * Finished resumes are saved for the employer who sent the batch, in groups
+ * of resume.batch.insert-size (batched inserts), and reported as one NDJSON
+ * line each. Candidates' own portfolios are never written by a batch.
+ */
+@Service
+public class ResumeBatchService {
+
+    private static final Set<String> SUPPORTED_EXTENSIONS = Set.of(".pdf", ".docx", ".doc", ".txt", ".rtf",
+            ".odt");
+
+    private final ResumePipeline pipeline;
+    private final BatchResumeResultRepository resultRepository;
+    private final StageMetrics stageMetrics;
+    private final ExecutorService batchExecutor;
+    private final ExecutorService batchAnalysisExecutor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int parallelism;
+    private final int insertSize;
+    private final long flushIntervalMs;
+    private final int maxQueueRetries;
+    private final long maxFileBytes;
+
+    public ResumeBatchService(ResumePipeline pipeline,
+            BatchResumeResultRepository resultRepository,
+            StageMetrics stageMetrics,
+            @Qualifier("batchExecutor") ExecutorService batchExecutor,
+            @Qualifier("batchAnalysisExecutor") ExecutorService batchAnalysisExecutor,
+            @Value("${resume.batch.parallelism:4}") int parallelism,
+            @Value("${resume.batch.insert-size:25}") int insertSize,
+            @Value("${resume.batch.flush-interval-ms:2000}") long flushIntervalMs,
+            @Value("${resume.batch.max-queue-retries:5}") int maxQueueRetries,
+            @Value("${resume.upload.max-file-bytes:10485760}") long maxFileBytes) {
+        this.pipeline = pipeline;
+        this.resultRepository = resultRepository;
+        this.stageMetrics = stageMetrics;
+        this.batchExecutor = batchExecutor;
+        this.batchAnalysisExecutor = batchAnalysisExecutor;
+        this.parallelism = Math.max(1, parallelism);
+        this.insertSize = Math.max(1, insertSize);
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxQueueRetries = maxQueueRetries;
+        this.maxFileBytes = maxFileBytes;
+    }
+
+    /** Outcome of one resume, written as one NDJSON line. */
+    private record Outcome(int index, String file, ParseResponse response, String error, Integer status) {
+
+        static Outcome failed(int index, String file, int status, String error) {
+            return new Outcome(index, file, null, error, status);
+        }
+    }
+
+    /**
+     * Processes every resume of the ZIP archive and of the files list for the
+     * employer, writing one line per resume to out as results are saved and a
+     * final summary line.
+     */
+    public void process(MultipartFile archive, List<MultipartFile> files, Employer employer, boolean bypassCache,
+            OutputStream out) throws IOException {
+        Batch batch = new Batch(out, employer, bypassCache);
+        try {
+            if (archive != null && !archive.isEmpty()) {
+                try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(archive.getInputStream()))) {
+                    ZipEntry entry;
+                    while ((entry = zip.getNextEntry()) != null) {
+                        String name = entry.getName();
+                        if (entry.isDirectory() || isHidden(name)) {
+                            continue;
+                        }
+                        if (!isSupported(name)) {
+                            batch.writeFailure(Outcome.failed(batch.nextIndex(), name, 415,
+                                    "Unsupported file type"));
+                            continue;
+                        }
+                        byte[] data = readEntry(zip);
+                        if (data == null) {
+                            batch.writeFailure(Outcome.failed(batch.nextIndex(), name, 413,
+                                    "File is larger than " + maxFileBytes + " bytes"));
+                            continue;
+                        }
+                        batch.submit(name, data);
+                    }
+                }
+            }
+            if (files != null) {
+                for (MultipartFile file : files) {
+                    if (file == null || file.isEmpty()) {
+                        continue;
+                    }
+                    if (file.getSize() > maxFileBytes) {
+                        batch.writeFailure(Outcome.failed(batch.nextIndex(), file.getOriginalFilename(), 413,
+                                "File is larger than " + maxFileBytes + " bytes"));
+                        continue;
+                    }
+                    batch.submit(file.getOriginalFilename(), file.getBytes());
+                }
+            }
+            batch.finish();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch interrupted", e);
+        }
+    }
+
+    /** The saved results of one of the employer's batches, in the order they were saved. */
+    public List<Map<String, Object>> results(Employer employer, String batchId) throws IOException {
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (BatchResumeResult result : resultRepository.findByEmployerAndBatchIdOrderById(employer, batchId)) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("resultId", result.getId());
+            line.put("file", result.getFileName());
+            line.put("createdAt", result.getCreatedAt().toString());
+            line.put("result", objectMapper.readValue(result.getResultJson(), ParseResponse.class));
+            results.add(line);
+        }
+        return results;
+    }
+
+    private Outcome processEntry(int index, String name, byte[] data, LlmCallContext llmContext) {
+        try {
+            MultipartFile file = new StoredResumeFile(data, name, contentType(name));
+            String resumeText = null;
+            for (int attempt = 0;; attempt++) {
+                try {
+                    if (resumeText == null) {
+                        resumeText = pipeline.extractText(file, null, null);
+                    }
+                    ParseResponse response = pipeline.parseAndAnalyze(resumeText, null, llmContext, null,
+                            batchAnalysisExecutor);
+                    return new Outcome(index, name, response, null, null);
+                } catch (LlmQueueFullException e) {
+                    // Batch work yields to interactive uploads: wait for the queue instead of failing
+                    if (attempt >= maxQueueRetries) {
+                        return Outcome.failed(index, name, 429, e.getMessage());
+                    }
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(Math.max(1, e.getRetryAfterSeconds())));
+                } catch (DocumentExtractionException e) {
+                    // Likewise when interactive uploads fill the extraction pool
+                    if (!"busy".equals(e.getReason()) || attempt >= maxQueueRetries) {
+                        throw e;
+                    }
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(1));
+                }
+            }
+        } catch (ResumeRejectedException e) {
+            return Outcome.failed(index, name, e.getStatus(), e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Outcome.failed(index, name, 503, "Batch cancelled");
+        } catch (Exception e) {
+            System.err.println("Error processing batch entry " + name + ": " + e.getMessage());
+            return Outcome.failed(index, name, 503, "Unable to process resume. Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * State of one batch request. Everything except processEntry runs on the
+     * request's streaming thread, which also writes the response.
+     */
+    private final class Batch {
+        private final String id = UUID.randomUUID().toString();
+        private final OutputStream out;
+        private final Employer employer;
+        private final LlmCallContext llmContext;
+        private final Semaphore permits = new Semaphore(parallelism);
+        private final BlockingQueue<Outcome> done = new LinkedBlockingQueue<>();
+        private final List<Outcome> pending = new ArrayList<>();
+        private final long startedAt = System.currentTimeMillis();
+        private long pendingSince;
+        private int nextIndex;
+        private int inFlight;
+        private int saved;
+        private int unsaved;
+        private int failed;
+
+        Batch(OutputStream out, Employer employer, boolean bypassCache) {
+            this.out = out;
+            this.employer = employer;
+            // One scheduler key per batch so a large batch does not starve other users' re-analysis
+            this.llmContext = new LlmCallContext(LlmPriority.BATCH, "batch-" + id, bypassCache);
+        }
+
+        int nextIndex() {
+            return nextIndex++;
+        }
+
+        void submit(String name, byte[] data) throws IOException, InterruptedException {
+            // Write finished results while waiting for a free slot
+            while (!permits.tryAcquire(flushIntervalMs, TimeUnit.MILLISECONDS)) {
+                drain();
+            }
+            int index = nextIndex();
+            inFlight++;
+            Runnable task = () -> {
+                try {
+                    done.add(processEntry(index, name, data, llmContext));
+                } finally {
+                    permits.release();
+                }
+            };
+            try {
+                batchExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+            drain();
+        }
+
+        void finish() throws IOException, InterruptedException {
+            while (inFlight > 0) {
+                Outcome outcome = done.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (outcome != null) {
+                    accept(outcome);
+                }
+                flushIfDue();
+            }
+            flush();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("batchId", id);
+            summary.put("total", nextIndex);
+            summary.put("saved", saved);
+            summary.put("unsaved", unsaved);
+            summary.put("failed", failed);
+            summary.put("elapsedMs", System.currentTimeMillis() - startedAt);
+            writeLine(Map.of("summary", summary));
+        }
+
+        private void drain() throws IOException {
+            Outcome outcome;
+            while ((outcome = done.poll()) != null) {
+                accept(outcome);
+            }
+            flushIfDue();
+        }
+
+        private void accept(Outcome outcome) throws IOException {
+            inFlight--;
+            if (outcome.response() == null) {
+                writeFailure(outcome);
+                return;
+            }
+            if (pending.isEmpty()) {
+                pendingSince = System.currentTimeMillis();
+            }
+            pending.add(outcome);
+        }
+
+        private void flushIfDue() throws IOException {
+            if (pending.size() >= insertSize
+                    || (!pending.isEmpty() && System.currentTimeMillis() - pendingSince >= flushIntervalMs)) {
+                flush();
+            }
+        }
+
+        /** Saves the pending results in one transaction and writes their lines. */
+        private void flush() throws IOException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<BatchResumeResult> results;
+            try {
+                long start = System.nanoTime();
+                List<BatchResumeResult> toSave = new ArrayList<>(pending.size());
+                for (Outcome outcome : pending) {
+                    toSave.add(toResult(outcome));
+                }
+                results = resultRepository.saveAll(toSave);
+                stageMetrics.record("save.batch", start);
+            } catch (Exception e) {
+                System.err.println("Error saving batch results: " + e.getMessage());
+                results = null;
+            }
+            for (int i = 0; i < pending.size(); i++) {
+                Outcome outcome = pending.get(i);
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("index", outcome.index());
+                line.put("file", outcome.file());
+                if (results != null) {
+                    saved++;
+                    line.put("status", "saved");
+                    line.put("resultId", results.get(i).getId());
+                } else {
+                    unsaved++;
+                    line.put("status", "unsaved");
+                    line.put("error", "Failed to save result");
+                }
+                line.put("result", outcome.response());
+                writeLine(line);
+            }
+            pending.clear();
+        }
+
+        private BatchResumeResult toResult(Outcome outcome) throws IOException {
+            BatchResumeResult result = new BatchResumeResult();
+            result.setEmployer(employer);
+            result.setBatchId(id);
+            result.setFileName(outcome.file());
+            result.setCandidateName(outcome.response().getPortfolio().getFullName());
+            result.setCandidateEmail(outcome.response().getPortfolio().getEmail());
+            result.setResultJson(objectMapper.writeValueAsString(outcome.response()));
+            return result;
+        }
+
+        void writeFailure(Outcome outcome) throws IOException {
+            failed++;
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("index", outcome.index());
+            line.put("file", outcome.file());
+            line.put("status", "error");
+            line.put("errorStatus", outcome.status());
+            line.put("error", outcome.error());
+            writeLine(line);
+        }
+
+        private void writeLine(Object line) throws IOException {
+            out.write(objectMapper.writeValueAsString(line).getBytes(StandardCharsets.UTF_8));
+            out.write('\n');
+            out.flush();
+        }
+    }
+
+    /** Reads the current ZIP entry, or returns null once it exceeds the size limit. */
+    private byte[] readEntry(InputStream zip) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        long total = 0;
+        int n;
+        while ((n = zip.read(chunk)) != -1) {
+            total += n;
+            if (total > maxFileBytes) {
+                return null;
+            }
+            buffer.write(chunk, 0, n);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static boolean isHidden(String name) {
+        String baseName = name.substring(name.lastIndexOf('/') + 1);
+        return name.startsWith("__MACOSX/") || baseName.startsWith(".");
+    }
+
+    private static boolean isSupported(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && SUPPORTED_EXTENSIONS.contains(name.substring(dot).toLowerCase(Locale.ROOT));
+    }
+
+    private static String contentType(String name) {
+        return name.toLowerCase(Locale.ROOT).endsWith(".pdf") ? "application/pdf" : null;
+    }
+}
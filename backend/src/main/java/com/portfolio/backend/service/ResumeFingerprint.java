@@ -0,0 +1,144 @@
+package com.portfolio.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Fingerprint of a resume saved with its portfolio, so a re-upload can tell
+ * what changed without keeping the old text: one hash per parse section (the
+ * unit the model re-parses) and one per non-blank line (which measures the
+ * size of the edit however the text is split into sections). The version
+ * ties it to the model and parse prompt that produced the saved portfolio.
+ */
+public class ResumeFingerprint {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int HASH_CHARS = 16;
+
+    private String version;
+    private Map<String, String> sections = new TreeMap<>();
+    private List<String> lines = new ArrayList<>();
+
+    public ResumeFingerprint() {
+    }
+
+    /** Fingerprints the given section texts (by name) and the lines of the whole text. */
+    public ResumeFingerprint(String version, Map<String, String> sectionTexts, String text) {
+        this.version = version;
+        sectionTexts.forEach((name, sectionText) -> sections.put(name, hash(sectionText)));
+        for (String line : text.split("\\r?\\n")) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty()) {
+                lines.add(hash(trimmed));
+            }
+        }
+    }
+
+    /**
+     * True when both fingerprints come from the same model and prompt and were
+     * split into sections, so the changed sections can be re-parsed alone.
+     */
+    public boolean isComparableTo(ResumeFingerprint previous) {
+        return previous != null && Objects.equals(version, previous.version)
+                && !sections.isEmpty() && !previous.sections.isEmpty();
+    }
+
+    /** Names of the sections that were added, removed or edited since previous. */
+    public Set<String> changedSections(ResumeFingerprint previous) {
+        Set<String> changed = new TreeSet<>();
+        Set<String> names = new TreeSet<>(sections.keySet());
+        names.addAll(previous.sections.keySet());
+        for (String name : names) {
+            if (!Objects.equals(sections.get(name), previous.sections.get(name))) {
+                changed.add(name);
+            }
+        }
+        return changed;
+    }
+
+    /** Share of lines (0 to 1) that were added or removed since previous. */
+    public double changeRatio(ResumeFingerprint previous) {
+        int total = lines.size() + previous.lines.size();
+        if (total == 0) {
+            return 0;
+        }
+        Map<String, Integer> remaining = new HashMap<>();
+        previous.lines.forEach(line -> remaining.merge(line, 1, Integer::sum));
+        int unchanged = 0;
+        for (String line : lines) {
+            Integer count = remaining.get(line);
+            if (count != null && count > 0) {
+                remaining.put(line, count - 1);
+                unchanged++;
+            }
+        }
+        return (double) (total - 2 * unchanged) / total;
+    }
+
+    public String toJson() {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(this);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize resume fingerprint", e);
+        }
+    }
+
+    /** Reads a stored fingerprint; returns null when there is none or it cannot be read. */
+    public static ResumeFingerprint fromJson(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.readValue(json, ResumeFingerprint.class);
+        } catch (JsonProcessingException e) {
+            System.err.println("Ignoring unreadable resume fingerprint: " + e.getMessage());
+            return null;
+        }
+    }
+
+    static String hash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest).substring(0, HASH_CHARS);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public Map<String, String> getSections() {
+        return sections;
+    }
+
+    public void setSections(Map<String, String> sections) {
+        this.sections = sections;
+    }
+
+    public List<String> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<String> lines) {
+        this.lines = lines;
+    }
+}
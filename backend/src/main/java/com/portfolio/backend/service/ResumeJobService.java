@@ -0,0 +1,440 @@
+package com.portfolio.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.backend.dto.ErrorResponse;
+import com.portfolio.backend.dto.ParseResponse;
+import com.portfolio.backend.dto.ResumeJobResponse;
+import com.portfolio.backend.entity.ResumeJob;
+import com.portfolio.backend.entity.ResumeJobFile;
+import com.portfolio.backend.repository.ResumeJobFileRepository;
+import com.portfolio.backend.repository.ResumeJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous resume processing on a queue shared by all backend nodes.
+ * Submitting stores the upload and a QUEUED row in the database and returns
+ * at once; ResumeJobWorker nodes (resume.jobs.local-workers per JVM) claim
+ * jobs, run the pipeline and record stage, result or error on the row. The
+ * workers start polling once the application is ready.
+ *
+ * A job's result is saved and the job completed in one transaction that
+ * holds the job's row lock and checks the claim's fencing token, so a node
+ * that lost its lease never overwrites the portfolio saved by the node that
+ * took the job over. While the LLM queue or the extractors are busy a job
+ * goes back to the queue with a growing delay, at most
+ * resume.jobs.max-requeues times.
+ */
+@Service
+public class ResumeJobService {
+
+    private static final String UNKNOWN_HOST = "node";
+    private static final long MAX_REQUEUE_DELAY_SECONDS = 300;
+
+    private final ResumeJobRepository jobRepository;
+    private final ResumeJobFileRepository jobFileRepository;
+    private final ResumePipeline pipeline;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService housekeeper;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long retentionHours;
+    private final long maxFileBytes;
+    private final long pollIntervalMs;
+    private final int maxRequeues;
+    private final List<ResumeJobWorker> workers = new ArrayList<>();
+
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    // Last stage sent to subscribers of jobs running on other nodes
+    private final Map<String, String> remoteStages = new ConcurrentHashMap<>();
+
+    public ResumeJobService(ResumeJobRepository jobRepository,
+            ResumeJobFileRepository jobFileRepository,
+            ResumePipeline pipeline,
+            PlatformTransactionManager transactionManager,
+            @Value("${resume.jobs.node-id:}") String nodeId,
+            @Value("${resume.jobs.local-workers:1}") int localWorkers,
+            @Value("${resume.jobs.threads:2}") int threadsPerWorker,
+            @Value("${resume.jobs.lease-ms:60000}") long leaseMs,
+            @Value("${resume.jobs.max-attempts:3}") int maxAttempts,
+            @Value("${resume.jobs.poll-interval-ms:2000}") long pollIntervalMs,
+            @Value("${resume.jobs.retention-hours:24}") long retentionHours,
+            @Value("${resume.jobs.max-requeues:10}") int maxRequeues,
+            @Value("${resume.upload.max-file-bytes:10485760}") long maxFileBytes) {
+        this.jobRepository = jobRepository;
+        this.jobFileRepository = jobFileRepository;
+        this.pipeline = pipeline;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retentionHours = retentionHours;
+        this.maxFileBytes = maxFileBytes;
+        this.pollIntervalMs = pollIntervalMs;
+        this.maxRequeues = maxRequeues;
+
+        String baseId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        for (int i = 1; i <= localWorkers; i++) {
+            String id = localWorkers == 1 ? baseId : baseId + "-" + i;
+            workers.add(new ResumeJobWorker(id, threadsPerWorker, leaseMs, maxAttempts, jobRepository,
+                    transactionTemplate, this::process));
+        }
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "resume-job-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Starts claiming jobs once the context is fully started, not while beans are still being created. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        workers.forEach(worker -> worker.start(pollIntervalMs));
+        housekeeper.scheduleWithFixedDelay(this::refreshRemoteSubscriptions, pollIntervalMs, pollIntervalMs,
+                TimeUnit.MILLISECONDS);
+        housekeeper.scheduleWithFixedDelay(this::purgeFinished, 10, 60, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stores the upload and a QUEUED job; the first worker node with a free
+     * slot picks it up. Uploads over resume.upload.max-file-bytes are rejected
+     * here, before they are read into memory and stored.
+     */
+    public ResumeJob submit(MultipartFile file, String text, String userEmail, boolean bypassCache)
+            throws IOException {
+        if (file != null && file.getSize() > maxFileBytes) {
+            throw new ResumeRejectedException(413, "Resume file is larger than " + maxFileBytes + " bytes.");
+        }
+        ResumeJob job = new ResumeJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setStatus(ResumeJob.Status.QUEUED);
+        job.setUserEmail(userEmail);
+        job.setBypassCache(bypassCache);
+        ResumeJobFile jobFile = null;
+        if (file != null && !file.isEmpty()) {
+            job.setFileName(file.getOriginalFilename());
+            job.setContentType(file.getContentType());
+            jobFile = new ResumeJobFile(job.getId(), file.getBytes());
+        } else {
+            job.setInputText(text);
+        }
+        ResumeJobFile upload = jobFile;
+        ResumeJob saved = transactionTemplate.execute(status -> {
+            // run_after is compared with the database clock when jobs are claimed
+            job.setCreatedAt(jobRepository.databaseNow());
+            if (upload != null) {
+                jobFileRepository.save(upload);
+            }
+            return jobRepository.save(job);
+        });
+        System.out.println("Queued resume job " + saved.getId());
+        workers.forEach(ResumeJobWorker::wake);
+        return saved;
+    }
+
+    public Optional<ResumeJobResponse> status(String id) {
+        return jobRepository.findById(id).map(this::toResponse);
+    }
+
+    /**
+     * SSE feed of one job: a "status" snapshot, then the pipeline's "stage",
+     * "portfolio" and "analysis" events while it runs, and a final "result" or
+     * "error" event.
+     */
+    public SseEmitter subscribe(String id, long timeoutMs) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Optional<ResumeJob> job = jobRepository.findById(id);
+        if (job.isEmpty()) {
+            send(emitter, "error", new ErrorResponse("Job not found: " + id));
+            emitter.complete();
+            return emitter;
+        }
+
+        List<SseEmitter> listeners = subscribers.computeIfAbsent(id, k -> new CopyOnWriteArrayList<>());
+        listeners.add(emitter);
+        Runnable remove = () -> subscribers.computeIfPresent(id, (k, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        // Re-read after registering so a job finishing in between is not missed
+        ResumeJob current = jobRepository.findById(id).orElse(job.get());
+        send(emitter, "status", toResponse(current));
+        if (current.getStatus().isFinished()) {
+            sendFinal(emitter, toResponse(current));
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    /** Queue depth per status and the state of the worker nodes in this JVM. */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (ResumeJob.Status status : ResumeJob.Status.values()) {
+            stats.put(status.name().toLowerCase(), jobRepository.countByStatus(status));
+        }
+        stats.put("nodes", workers.stream().map(ResumeJobWorker::stats).toList());
+        return stats;
+    }
+
+    /**
+     * Jobs running on another node do not produce local events, so their
+     * subscribers are fed from the table: stage changes and the final outcome.
+     */
+    private void refreshRemoteSubscriptions() {
+        for (String id : subscribers.keySet()) {
+            if (workers.stream().anyMatch(worker -> worker.isRunning(id))) {
+                continue;
+            }
+            try {
+                Optional<ResumeJob> job = jobRepository.findById(id);
+                if (job.isEmpty() || job.get().getStatus().isFinished()) {
+                    job.ifPresent(this::notifyFinished);
+                    remoteStages.remove(id);
+                    continue;
+                }
+                String stage = job.get().getStage() != null ? job.get().getStage()
+                        : job.get().getStatus() == ResumeJob.Status.QUEUED ? "queued" : null;
+                if (stage != null && !stage.equals(remoteStages.put(id, stage))) {
+                    broadcast(id, "stage", Map.of("stage", stage));
+                }
+            } catch (Exception e) {
+                System.err.println("Could not refresh resume job " + id + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void purgeFinished() {
+        try {
+            jobRepository.deleteFinishedBefore(jobRepository.databaseNow().minusHours(retentionHours));
+            jobRepository.deleteOrphanedFiles(ResumeJob.Status.QUEUED, ResumeJob.Status.RUNNING);
+        } catch (Exception e) {
+            System.err.println("Could not purge finished resume jobs: " + e.getMessage());
+        }
+    }
+
+    private void process(ResumeJob job, ResumeJobWorker worker) {
+        String id = job.getId();
+        String node = worker.getNodeId();
+        System.out.println("Running resume job " + id + " on node " + node + " (attempt " + job.getAttempts() + ")");
+        LlmCallContext llmContext = new LlmCallContext(LlmPriority.INTERACTIVE, job.getUserEmail(),
+                job.isBypassCache());
+        ResumePipeline.ProgressListener progress = (name, data) -> {
+            if ("stage".equals(name) && data instanceof Map<?, ?> stage) {
+                jobRepository.updateStage(id, node, String.valueOf(stage.get("stage")));
+            }
+            broadcast(id, name, data);
+        };
+
+        RequestTrace.start();
+        MultipartFile file = null;
+        try {
+            file = pipeline.stageUpload(job.getInputText() != null ? null
+                    : jobFileRepository.findById(id)
+                            .map(f -> new StoredResumeFile(f.getData(), job.getFileName(), job.getContentType()))
+                            .orElseThrow(() -> new IllegalStateException("Uploaded file of job " + id + " is missing")));
+            String resumeText = pipeline.extractText(file, job.getInputText(), progress);
+            ParseResponse parsed = pipeline.parseAndAnalyze(resumeText, job.getUserEmail(), llmContext, progress);
+            progress.onEvent("stage", Map.of("stage", "saving"));
+            MultipartFile upload = file;
+            finish(job, node, ResumeJob.Status.SUCCEEDED, () -> {
+                try {
+                    return objectMapper.writeValueAsString(pipeline.save(parsed, upload, resumeText));
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not serialize the result of resume job " + id, e);
+                }
+            }, null, null);
+        } catch (LlmQueueFullException e) {
+            // Not a failure: wait for the LLM queue to drain and let any node run the job again
+            requeue(job, node, e.getRetryAfterSeconds(), "LLM queue saturated: " + e.getMessage());
+        } catch (DocumentExtractionException e) {
+            if ("busy".equals(e.getReason())) {
+                requeue(job, node, 1, "document extractors busy");
+            } else {
+                finish(job, node, ResumeJob.Status.FAILED, null, e.getMessage(), e.getStatus());
+            }
+        } catch (ResumeRejectedException e) {
+            finish(job, node, ResumeJob.Status.FAILED, null, e.getMessage(), e.getStatus());
+        } catch (Exception e) {
+            System.err.println("Error processing resume job " + id + ": " + e.getMessage());
+            e.printStackTrace();
+            finish(job, node, ResumeJob.Status.FAILED, null,
+                    "Unable to process resume. Please ensure Ollama AI service is running and try again. Error: "
+                            + e.getMessage(),
+                    503);
+        } finally {
+            pipeline.discardUpload(file);
+            RequestTrace.clear();
+        }
+    }
+
+    /**
+     * Gives the job back to the queue, after the retry delay the busy
+     * component asked for or, when longer, 2^requeues seconds (at most five
+     * minutes). A job that was already requeued max-requeues times fails.
+     */
+    private void requeue(ResumeJob job, String node, long retryAfterSeconds, String reason) {
+        String id = job.getId();
+        if (job.getRequeues() >= maxRequeues) {
+            System.out.println("Resume job " + id + " requeued " + job.getRequeues() + " times, giving up (" + reason
+                    + ")");
+            finish(job, node, ResumeJob.Status.FAILED, null,
+                    "The server stayed too busy to process this resume. Please try again later.", 503);
+            return;
+        }
+        long backoff = 1L << Math.min(job.getRequeues(), 16);
+        long delaySeconds = Math.min(MAX_REQUEUE_DELAY_SECONDS, Math.max(Math.max(1, retryAfterSeconds), backoff));
+        int updated = jobRepository.requeue(id, node, job.getAttempts(), ResumeJob.Status.RUNNING,
+                ResumeJob.Status.QUEUED, jobRepository.databaseNow().plusSeconds(delaySeconds));
+        if (updated == 0) {
+            System.out.println("Resume job " + id + " lost its lease on node " + node + ", not requeued");
+            return;
+        }
+        System.out.println("Resume job " + id + " requeued for " + delaySeconds + "s (" + reason + ")");
+        broadcast(id, "stage", Map.of("stage", "queued"));
+    }
+
+    /**
+     * Records the outcome if this node still holds the job's claim. result,
+     * when given, saves the result and returns its JSON; it runs in the same
+     * transaction, under the job's row lock, so nothing is saved when the
+     * lease was lost.
+     */
+    private void finish(ResumeJob job, String node, ResumeJob.Status status, Supplier<String> result,
+            String errorMessage, Integer errorStatus) {
+        AtomicReference<String> resultJson = new AtomicReference<>();
+        AtomicReference<LocalDateTime> finishedAt = new AtomicReference<>();
+        Boolean owned = transactionTemplate.execute(tx -> {
+            if (jobRepository.lockOwned(job.getId(), node, job.getAttempts()).isEmpty()) {
+                return false;
+            }
+            if (result != null) {
+                resultJson.set(result.get());
+            }
+            finishedAt.set(jobRepository.databaseNow());
+            jobRepository.complete(job.getId(), node, job.getAttempts(), ResumeJob.Status.RUNNING, status,
+                    resultJson.get(), errorMessage, errorStatus, finishedAt.get());
+            if (jobFileRepository.existsById(job.getId())) {
+                jobFileRepository.deleteById(job.getId());
+            }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(owned)) {
+            // The lease expired and another node took the job over; its outcome wins
+            System.out.println("Resume job " + job.getId() + " lost its lease on node " + node + ", result dropped");
+            return;
+        }
+        System.out.println("Resume job " + job.getId() + " " + status + " on node " + node);
+        RequestTrace trace = RequestTrace.current();
+        if (status == ResumeJob.Status.SUCCEEDED && trace != null) {
+            System.out.println("Resume job " + job.getId() + " " + trace);
+            broadcast(job.getId(), "timing", trace.toMap());
+        }
+
+        job.setStatus(status);
+        job.setStage(null);
+        job.setResultJson(resultJson.get());
+        job.setErrorMessage(errorMessage);
+        job.setErrorStatus(errorStatus);
+        job.setFinishedAt(finishedAt.get());
+        notifyFinished(job);
+    }
+
+    private void notifyFinished(ResumeJob job) {
+        List<SseEmitter> listeners = subscribers.remove(job.getId());
+        if (listeners != null) {
+            ResumeJobResponse response = toResponse(job);
+            for (SseEmitter emitter : listeners) {
+                sendFinal(emitter, response);
+                emitter.complete();
+            }
+        }
+    }
+
+    private ResumeJobResponse toResponse(ResumeJob job) {
+        ResumeJobResponse response = new ResumeJobResponse();
+        response.setId(job.getId());
+        response.setStatus(job.getStatus().name());
+        response.setStage(job.getStage());
+        response.setAttempts(job.getAttempts());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setStartedAt(job.getStartedAt());
+        response.setFinishedAt(job.getFinishedAt());
+        if (job.getResultJson() != null) {
+            try {
+                response.setResult(objectMapper.readValue(job.getResultJson(), ParseResponse.class));
+            } catch (IOException e) {
+                System.err.println("Unreadable result for resume job " + job.getId() + ": " + e.getMessage());
+            }
+        }
+        if (job.getErrorMessage() != null) {
+            response.setError(new ErrorResponse(job.getErrorMessage()));
+            response.setErrorStatus(job.getErrorStatus());
+        }
+        return response;
+    }
+
+    private void broadcast(String id, String name, Object data) {
+        List<SseEmitter> listeners = subscribers.get(id);
+        if (listeners != null) {
+            listeners.forEach(emitter -> send(emitter, name, data));
+        }
+    }
+
+    private void sendFinal(SseEmitter emitter, ResumeJobResponse response) {
+        if (response.getResult() != null) {
+            send(emitter, "result", response.getResult());
+        } else {
+            send(emitter, "error", response.getError());
+        }
+    }
+
+    private static void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (Exception e) {
+            // Subscriber went away; the job keeps running
+            System.err.println("Could not send '" + name + "' job event: " + e.getMessage());
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = UNKNOWN_HOST;
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        housekeeper.shutdownNow();
+        workers.forEach(ResumeJobWorker::shutdown);
+    }
+}
@@ -0,0 +1,178 @@
+package com.portfolio.backend.service;
+
+import com.portfolio.backend.entity.ResumeJob;
+import com.portfolio.backend.repository.ResumeJobRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One worker node of the resume job queue. Claims at most as many jobs as it
+ * has free slots with SELECT ... FOR UPDATE SKIP LOCKED, so any number of
+ * nodes (in separate JVMs or in one) can poll the same table without taking
+ * the same job. Leases are renewed by a heartbeat while a job runs; a job
+ * whose node dies becomes claimable again once its lease expires. Lease times
+ * are taken from the database clock, never from this JVM's. Each claim
+ * increments the job's attempts, which then serves as the claim's fencing
+ * token: the handler completes the job only while it still holds that claim
+ * (see ResumeJobRepository.lockOwned()).
+ */
+public class ResumeJobWorker {
+
+    @FunctionalInterface
+    public interface Handler {
+        void handle(ResumeJob job, ResumeJobWorker worker);
+    }
+
+    private final String nodeId;
+    private final int concurrency;
+    private final long leaseMs;
+    private final int maxAttempts;
+    private final ResumeJobRepository jobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Handler handler;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService pool;
+
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+
+    public ResumeJobWorker(String nodeId, int concurrency, long leaseMs, int maxAttempts,
+            ResumeJobRepository jobRepository, TransactionTemplate transactionTemplate, Handler handler) {
+        this.nodeId = nodeId;
+        this.concurrency = concurrency;
+        this.leaseMs = leaseMs;
+        this.maxAttempts = maxAttempts;
+        this.jobRepository = jobRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.handler = handler;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "resume-job-poller-" + nodeId);
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread t = new Thread(r, "resume-job-" + nodeId + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void start(long pollIntervalMs) {
+        scheduler.scheduleWithFixedDelay(this::poll, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+        long heartbeatMs = Math.max(1000, leaseMs / 3);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Polls right away instead of waiting for the next tick, e.g. after a submit. */
+    public void wake() {
+        try {
+            scheduler.execute(this::poll);
+        } catch (Exception e) {
+            // Shutting down
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean isRunning(String jobId) {
+        return running.contains(jobId);
+    }
+
+    private void poll() {
+        int free = concurrency - running.size();
+        if (free <= 0) {
+            return;
+        }
+        try {
+            List<String> ids = transactionTemplate.execute(status -> {
+                LocalDateTime now = jobRepository.databaseNow();
+                List<String> locked = jobRepository.lockClaimable(now, maxAttempts, free);
+                if (!locked.isEmpty()) {
+                    jobRepository.claim(locked, ResumeJob.Status.RUNNING, nodeId, now.plusNanos(leaseMs * 1_000_000),
+                            now);
+                }
+                return locked;
+            });
+            for (String id : ids) {
+                claimed.incrementAndGet();
+                running.add(id);
+                pool.execute(() -> run(id));
+            }
+        } catch (Exception e) {
+            System.err.println("Resume job node " + nodeId + " could not claim jobs: " + e.getMessage());
+        }
+    }
+
+    private void run(String id) {
+        try {
+            // Read after the claim committed, so attempts is this claim's fencing token
+            jobRepository.findById(id)
+                    .filter(job -> nodeId.equals(job.getLockedBy()) && job.getStatus() == ResumeJob.Status.RUNNING)
+                    .ifPresent(job -> handler.handle(job, this));
+        } catch (Exception e) {
+            System.err.println("Resume job " + id + " failed on node " + nodeId + ": " + e.getMessage());
+        } finally {
+            running.remove(id);
+            completed.incrementAndGet();
+            wake();
+        }
+    }
+
+    private void heartbeat() {
+        try {
+            LocalDateTime now = jobRepository.databaseNow();
+            if (!running.isEmpty()) {
+                jobRepository.renewLeases(new ArrayList<>(running), nodeId, ResumeJob.Status.RUNNING,
+                        now.plusNanos(leaseMs * 1_000_000));
+            }
+            int abandoned = jobRepository.failAbandoned(ResumeJob.Status.RUNNING, ResumeJob.Status.FAILED,
+                    now, maxAttempts, "Resume job abandoned after " + maxAttempts + " attempts.");
+            if (abandoned > 0) {
+                System.out.println("Failed " + abandoned + " abandoned resume job(s)");
+            }
+        } catch (Exception e) {
+            System.err.println("Resume job node " + nodeId + " heartbeat failed: " + e.getMessage());
+        }
+    }
+
+    /** Stops claiming and hands the jobs still running back to the queue for other nodes. */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        pool.shutdownNow();
+        try {
+            int released = jobRepository.releaseAll(nodeId, ResumeJob.Status.RUNNING, ResumeJob.Status.QUEUED);
+            if (released > 0) {
+                System.out.println("Node " + nodeId + " released " + released + " resume job(s)");
+            }
+        } catch (Exception e) {
+            System.err.println("Node " + nodeId + " could not release its resume jobs: " + e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("node", nodeId);
+        stats.put("concurrency", concurrency);
+        stats.put("running", running.size());
+        stats.put("claimed", claimed.get());
+        stats.put("completed", completed.get());
+        return stats;
+    }
+}
@@ -0,0 +1,448 @@
+package com.portfolio.backend.service;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.portfolio.backend.dto.ParseResponse;
+import com.portfolio.backend.dto.PortfolioData;
+import com.portfolio.backend.dto.ResumeAnalysis;
+import com.portfolio.backend.entity.Portfolio;
+import com.portfolio.backend.entity.ResumeAnalysisEntity;
+import com.portfolio.backend.entity.User;
+import com.portfolio.backend.repository.ResumeAnalysisRepository;
+import com.portfolio.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The resume pipeline shared by the synchronous, streaming and job endpoints:
+ * extract text, parse the portfolio, analyze, validate against the account
+ * and save.
+ */
+@Service
+public class ResumePipeline {
+
+    /** Receives the events /parse/stream sends: "stage", "portfolio" and "analysis". */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onEvent(String name, Object data);
+    }
+
+    private static final String UNAVAILABLE_MESSAGE =
+            "Failed to parse resume properly. The AI service may be unavailable. Please ensure Ollama is running and try again.";
+
+    private final DocumentParserService documentParserService;
+    private final OllamaService ollamaService;
+    private final PortfolioService portfolioService;
+    private final ResumeAnalysisRepository resumeAnalysisRepository;
+    private final UserRepository userRepository;
+    private final ExecutorService analysisExecutor;
+    private final StageMetrics stageMetrics;
+
+    @Value("${resume.pipeline.concurrent:true}")
+    private boolean concurrentPipeline;
+
+    @Value("${resume.upload.max-file-bytes:10485760}")
+    private long maxFileBytes;
+
+    // Re-analysis re-parses only the changed sections of a resume that was parsed before
+    @Value("${resume.reanalyze.incremental:true}")
+    private boolean incrementalReanalysis;
+
+    // Share of changed lines above which a re-analysis also re-runs the analysis prompt
+    @Value("${resume.reanalyze.analysis-threshold:0.2}")
+    private double analysisThreshold;
+
+    public ResumePipeline(DocumentParserService documentParserService,
+            OllamaService ollamaService,
+            PortfolioService portfolioService,
+            ResumeAnalysisRepository resumeAnalysisRepository,
+            UserRepository userRepository,
+            @Qualifier("analysisExecutor") ExecutorService analysisExecutor,
+            StageMetrics stageMetrics) {
+        this.documentParserService = documentParserService;
+        this.ollamaService = ollamaService;
+        this.portfolioService = portfolioService;
+        this.resumeAnalysisRepository = resumeAnalysisRepository;
+        this.userRepository = userRepository;
+        this.analysisExecutor = analysisExecutor;
+        this.stageMetrics = stageMetrics;
+    }
+
+    /**
+     * Writes the upload once to the staging area (hashing it on the way), so
+     * extraction and saving both use that copy; returns file itself when there
+     * is no upload. Release the result with discardUpload() when done.
+     */
+    public MultipartFile stageUpload(MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty() || file instanceof StagedResumeFile) {
+            return file;
+        }
+        if (file.getSize() > maxFileBytes) {
+            throw new ResumeRejectedException(413, "Resume file is larger than " + maxFileBytes + " bytes.");
+        }
+        return portfolioService.stageUpload(file);
+    }
+
+    public void discardUpload(MultipartFile file) {
+        portfolioService.discardUpload(file);
+    }
+
+    /** Text of the uploaded file, or the pasted text when no file was sent. */
+    public String extractText(MultipartFile file, String text, ProgressListener progress) {
+        emit(progress, "stage", Map.of("stage", "extracting"));
+        if (file != null && !file.isEmpty()) {
+            if (file.getSize() > maxFileBytes) {
+                throw new ResumeRejectedException(413, "Resume file is larger than " + maxFileBytes + " bytes.");
+            }
+            System.out.println("Processing file: " + file.getOriginalFilename());
+            long start = System.nanoTime();
+            try {
+                return documentParserService.extractText(file);
+            } finally {
+                stageMetrics.record("extract", start);
+            }
+        }
+        System.out.println("Processing text input");
+        return text;
+    }
+
+    /**
+     * Parses, analyzes, validates and saves an extracted resume. Throws
+     * ResumeRejectedException when the result does not pass validation and
+     * LlmQueueFullException when the model calls cannot be scheduled.
+     */
+    public ParseResponse process(String resumeText, MultipartFile resumeFile, String userEmail,
+            LlmCallContext llmContext, ProgressListener progress) throws Exception {
+        ParseResponse response = parseAndAnalyze(resumeText, userEmail, llmContext, progress);
+        emit(progress, "stage", Map.of("stage", "saving"));
+        return save(response, resumeFile, resumeText);
+    }
+
+    /**
+     * Saves a result of parseAndAnalyze() the way process() does. Joins the
+     * caller's transaction, so a job can save and complete in one.
+     */
+    public ParseResponse save(ParseResponse response, MultipartFile resumeFile, String resumeText) {
+        return saveResult(response.getPortfolio(), response.getAnalysis(), resumeFile, resumeText,
+                fingerprint(resumeText));
+    }
+
+    /**
+     * Full re-analysis: parses and analyzes the resume like process(), then
+     * deletes the user's saved portfolio and analysis history and saves the
+     * new result in their place. Nothing is deleted when the model calls fail;
+     * pass a context without fallback so an unavailable model fails the call
+     * rather than replacing the portfolio with the basic extraction.
+     */
+    public ParseResponse replace(String resumeText, MultipartFile resumeFile, String userEmail,
+            LlmCallContext llmContext, ProgressListener progress) throws Exception {
+        ParseResponse response = parseAndAnalyze(resumeText, userEmail, llmContext, progress);
+        emit(progress, "stage", Map.of("stage", "saving"));
+        if (userEmail != null && !userEmail.trim().isEmpty()) {
+            System.out.println("Clearing existing data to force re-analysis: " + userEmail);
+            portfolioService.deletePortfolioByEmail(userEmail);
+            userRepository.findByEmail(userEmail).ifPresent(resumeAnalysisRepository::deleteByUser);
+        }
+        return saveResult(response.getPortfolio(), response.getAnalysis(), resumeFile, resumeText,
+                fingerprint(resumeText));
+    }
+
+    /** True when the user's saved portfolio has the fingerprints reprocess() needs. */
+    public boolean canReprocess(String userEmail) {
+        if (!incrementalReanalysis || userEmail == null || userEmail.trim().isEmpty()) {
+            return false;
+        }
+        return portfolioService.findPortfolioByEmail(userEmail.trim())
+                .map(portfolio -> portfolio.getSectionFingerprints() != null)
+                .orElse(false);
+    }
+
+    /**
+     * Re-analysis of an updated resume against the user's saved portfolio:
+     * only the sections whose fingerprint changed go to the model and are
+     * merged into the saved portfolio, and the saved analysis is kept unless
+     * more than resume.reanalyze.analysis-threshold of the lines changed.
+     * Runs process() when the saved fingerprint is not comparable (another
+     * model or prompt version, or sections not detected).
+     */
+    public ParseResponse reprocess(String resumeText, MultipartFile resumeFile, String userEmail,
+            LlmCallContext llmContext, ProgressListener progress) throws Exception {
+        Portfolio existing = portfolioService.findPortfolioByEmail(userEmail.trim()).orElse(null);
+        ResumeFingerprint previous = existing == null ? null
+                : ResumeFingerprint.fromJson(existing.getSectionFingerprints());
+        ResumeFingerprint fingerprint = fingerprint(resumeText);
+        if (!fingerprint.isComparableTo(previous)) {
+            System.out.println("No comparable section fingerprints, re-analyzing the whole resume");
+            return process(resumeText, resumeFile, userEmail, llmContext, progress);
+        }
+
+        Set<String> changed = fingerprint.changedSections(previous);
+        double changeRatio = fingerprint.changeRatio(previous);
+        boolean fullAnalysis = changeRatio > analysisThreshold;
+        System.out.println("Incremental re-analysis: changed sections " + changed + ", "
+                + Math.round(changeRatio * 100) + "% of lines changed"
+                + (fullAnalysis ? ", re-running the analysis" : ", keeping the saved analysis"));
+
+        StreamingJsonFieldParser.Listener portfolioListener = progress == null ? null
+                : (field, value) -> progress.onEvent("portfolio", Map.of("field", field, "value", value));
+        StreamingJsonFieldParser.Listener analysisListener = progress == null ? null
+                : (field, value) -> progress.onEvent("analysis", Map.of("field", field, "value", value));
+
+        Future<ResumeAnalysis> speculativeAnalysis = fullAnalysis
+                ? startSpeculativeAnalysis(resumeText, analysisListener, llmContext, analysisExecutor)
+                : null;
+        try {
+            emit(progress, "stage", Map.of("stage", "parsing"));
+            long parseStart = System.nanoTime();
+            PortfolioData portfolio;
+            try {
+                portfolio = ollamaService.reparseSections(resumeText,
+                        portfolioService.toPortfolioData(existing), changed, portfolioListener, llmContext);
+            } finally {
+                stageMetrics.record("parse", parseStart);
+            }
+
+            validateParsedPortfolio(portfolio, resumeText, userEmail);
+
+            emit(progress, "stage", Map.of("stage", "analyzing"));
+            ResumeAnalysis analysis = fullAnalysis
+                    ? awaitAnalysis(speculativeAnalysis, resumeText, analysisListener, llmContext)
+                    : portfolioService.toAnalysis(existing);
+
+            emit(progress, "stage", Map.of("stage", "saving"));
+            return saveResult(portfolio, analysis, resumeFile, resumeText, fingerprint);
+        } finally {
+            if (speculativeAnalysis != null && !speculativeAnalysis.isDone()) {
+                System.out.println("Cancelling speculative resume analysis");
+                speculativeAnalysis.cancel(true);
+            }
+        }
+    }
+
+    /** Same as process() without saving. */
+    public ParseResponse parseAndAnalyze(String resumeText, String userEmail, LlmCallContext llmContext,
+            ProgressListener progress) throws Exception {
+        return parseAndAnalyze(resumeText, userEmail, llmContext, progress, analysisExecutor);
+    }
+
+    /**
+     * Same as process() without saving, running the speculative analysis on
+     * analysisPool; batches pass their own pool so they cannot fill the one
+     * interactive uploads use.
+     */
+    public ParseResponse parseAndAnalyze(String resumeText, String userEmail, LlmCallContext llmContext,
+            ProgressListener progress, ExecutorService analysisPool) throws Exception {
+        StreamingJsonFieldParser.Listener portfolioListener = progress == null ? null
+                : (field, value) -> progress.onEvent("portfolio", Map.of("field", field, "value", value));
+        StreamingJsonFieldParser.Listener analysisListener = progress == null ? null
+                : (field, value) -> progress.onEvent("analysis", Map.of("field", field, "value", value));
+
+        // The analysis only depends on the extracted text, so start it now and
+        // let it overlap with the parse; it is cancelled if validation rejects.
+        Future<ResumeAnalysis> speculativeAnalysis = startSpeculativeAnalysis(resumeText, analysisListener,
+                llmContext, analysisPool);
+        try {
+            emit(progress, "stage", Map.of("stage", "parsing"));
+            System.out.println("Parsing resume with Ollama...");
+            long parseStart = System.nanoTime();
+            PortfolioData portfolio;
+            try {
+                portfolio = ollamaService.parseResume(resumeText, portfolioListener, llmContext);
+            } finally {
+                stageMetrics.record("parse", parseStart);
+            }
+
+            validateParsedPortfolio(portfolio, resumeText, userEmail);
+
+            emit(progress, "stage", Map.of("stage", "analyzing"));
+            ResumeAnalysis analysis = awaitAnalysis(speculativeAnalysis, resumeText, analysisListener, llmContext);
+
+            ParseResponse response = new ParseResponse();
+            response.setPortfolio(portfolio);
+            response.setAnalysis(analysis);
+            return response;
+        } finally {
+            // No-op once the analysis was consumed; aborts it on any early exit
+            if (speculativeAnalysis != null && !speculativeAnalysis.isDone()) {
+                System.out.println("Cancelling speculative resume analysis");
+                speculativeAnalysis.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Response used while the LLM queue is saturated: contact details from the
+     * rule-based extractor, no analysis, nothing persisted. The client can
+     * retry later for the full result.
+     */
+    public ParseResponse degradedResult(String resumeText) {
+        ParseResponse response = new ParseResponse();
+        response.setPortfolio(ollamaService.basicPortfolio(resumeText));
+        response.setDegraded(true);
+        return response;
+    }
+
+    /**
+     * Checks the parsed portfolio against the uploaded text and the account it is
+     * being uploaded for.
+     */
+    private void validateParsedPortfolio(PortfolioData portfolio, String resumeText, String userEmail) {
+        long start = System.nanoTime();
+        try {
+            checkParsedPortfolio(portfolio, resumeText, userEmail);
+        } finally {
+            stageMetrics.record("validate", start);
+        }
+    }
+
+    private void checkParsedPortfolio(PortfolioData portfolio, String resumeText, String userEmail) {
+        // Validate parsed data quality - reject obvious address/location misparses
+        if (portfolio.getFullName() == null || portfolio.getFullName().trim().isEmpty()) {
+            throw new ResumeRejectedException(503, UNAVAILABLE_MESSAGE);
+        }
+
+        String nameLC = portfolio.getFullName().toLowerCase();
+        if (nameLC.contains("house") || nameLC.contains("street") || nameLC.contains("road") ||
+                nameLC.contains("avenue") || nameLC.contains("blvd") || nameLC.contains("apt") ||
+                nameLC.contains("apartment") || nameLC.contains("suite") || nameLC.contains("unit") ||
+                portfolio.getFullName().matches(".*\\d{3,}.*")) { // Only reject if 3+ consecutive digits (like zip
+                                                              // code)
+            throw new ResumeRejectedException(503, UNAVAILABLE_MESSAGE);
+        }
+
+        // Super relaxed validation: Check if email OR any part of the name matches
+        if (userEmail != null && !userEmail.trim().isEmpty()) {
+            String userEmailLC = userEmail.trim().toLowerCase();
+            String resumeTextLC = resumeText.toLowerCase();
+
+            boolean match = resumeTextLC.contains(userEmailLC);
+
+            if (!match) {
+                // Try matching by name parts if email isn't found
+                long lookupStart = System.nanoTime();
+                String userName = userRepository.findByEmail(userEmail)
+                        .map(User::getName)
+                        .orElse("");
+                stageMetrics.record("validate.user-lookup", lookupStart);
+
+                if (!userName.isEmpty()) {
+                    String[] nameParts = userName.toLowerCase().split("\\s+");
+                    for (String part : nameParts) {
+                        if (part.length() > 2 && resumeTextLC.contains(part)) {
+                            match = true;
+                            break;
+                        }
+                    }
+                }
+            }
+
+            if (!match) {
+                throw new ResumeRejectedException(400,
+                        "Resume validation failed. We couldn't find your name or email in the uploaded document.");
+            }
+
+            // If AI parsed a different email (or failed to parse one),
+            // override it with the verified account email
+            if (portfolio.getEmail() == null || !portfolio.getEmail().trim().equalsIgnoreCase(userEmailLC)) {
+                portfolio.setEmail(userEmail.trim());
+            }
+        }
+    }
+
+    private ParseResponse saveResult(PortfolioData portfolio, ResumeAnalysis analysis, MultipartFile resumeFile,
+            String resumeText, ResumeFingerprint fingerprint) {
+        ParseResponse response = new ParseResponse();
+        response.setPortfolio(portfolio);
+        response.setAnalysis(analysis);
+
+        // Save to PostgreSQL database
+        System.out.println("Saving portfolio to database...");
+        Portfolio savedPortfolio = portfolioService.savePortfolio(response, resumeFile, fingerprint);
+        System.out.println("Portfolio saved with ID: " + savedPortfolio.getId());
+
+        // Set the saved portfolio ID in the response
+        portfolio.setId(savedPortfolio.getId());
+        response.setPortfolio(portfolio);
+
+        // Persist analysis per user (if available)
+        long start = System.nanoTime();
+        userRepository.findByEmail(portfolio.getEmail())
+                .ifPresent(user -> resumeAnalysisRepository.save(toAnalysisEntity(user, response, resumeText)));
+        stageMetrics.record("save.analysis", start);
+
+        return response;
+    }
+
+    private ResumeFingerprint fingerprint(String resumeText) {
+        long start = System.nanoTime();
+        try {
+            return ollamaService.fingerprint(resumeText);
+        } finally {
+            stageMetrics.record("fingerprint", start);
+        }
+    }
+
+    private static ResumeAnalysisEntity toAnalysisEntity(User user, ParseResponse response, String resumeText) {
+        ResumeAnalysis analysis = response.getAnalysis();
+        ResumeAnalysisEntity ra = new ResumeAnalysisEntity();
+        ra.setUser(user);
+        ra.setResumeText(resumeText);
+        ra.setAnalysisScores("{\"overall\":" + (analysis.getScore() == null ? 0 : analysis.getScore()) + "}");
+        ra.setStrengths(JsonMapper.builder().build().valueToTree(analysis.getStrengths()).toString());
+        ra.setWeaknesses(JsonMapper.builder().build().valueToTree(analysis.getWeaknesses()).toString());
+        ra.setIdentifiedSkills(JsonMapper.builder().build()
+                .valueToTree(response.getPortfolio().getSkills()).toString());
+        ra.setRecommendedSkills("[]");
+        return ra;
+    }
+
+    private Future<ResumeAnalysis> startSpeculativeAnalysis(String resumeText,
+            StreamingJsonFieldParser.Listener listener, LlmCallContext llmContext, ExecutorService analysisPool) {
+        if (!concurrentPipeline) {
+            return null;
+        }
+        try {
+            System.out.println("Analyzing resume with Ollama (concurrent)...");
+            return analysisPool.submit(RequestTrace.wrap(
+                    () -> ollamaService.analyzeResume(resumeText, listener, llmContext)));
+        } catch (RejectedExecutionException e) {
+            System.out.println("Analysis pool saturated, analysis will run after parsing");
+            return null;
+        }
+    }
+
+    private ResumeAnalysis awaitAnalysis(Future<ResumeAnalysis> speculativeAnalysis, String resumeText,
+            StreamingJsonFieldParser.Listener listener, LlmCallContext llmContext) throws Exception {
+        if (speculativeAnalysis == null) {
+            System.out.println("Analyzing resume with Ollama...");
+            return ollamaService.analyzeResume(resumeText, listener, llmContext);
+        }
+        long start = System.nanoTime();
+        try {
+            return speculativeAnalysis.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } finally {
+            // Time the parse did not hide: how long the analysis still ran after it
+            stageMetrics.record("analysis.wait", start);
+        }
+    }
+
+    private static void emit(ProgressListener progress, String name, Object data) {
+        if (progress != null) {
+            progress.onEvent(name, data);
+        }
+    }
+}
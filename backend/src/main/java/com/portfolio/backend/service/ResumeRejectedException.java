@@ -0,0 +1,21 @@
+package com.portfolio.backend.service;
+
+/**
+ * Thrown when a parsed resume fails validation (misparsed name, resume not
+ * matching the account). Carries the HTTP status the endpoints answer with.
+ */
+public class ResumeRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public ResumeRejectedException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,95 @@
+package com.portfolio.backend.service;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Heading detection and section splitting for resume text. A line is a
+ * heading when it is short and either one of the common section names (in
+ * any case) or an all-caps line containing a section keyword, e.g.
+ * "WORK HISTORY" or "KEY PROJECTS". Text before the first heading is the
+ * header (name and contact details).
+ */
+public final class ResumeSections {
+
+    public enum Section { HEADER, SUMMARY, EXPERIENCE, EDUCATION, PROJECTS, SKILLS, OTHER }
+
+    private static final Pattern TRAILING_COLON = Pattern.compile("\\s*:+$");
+    private static final int MAX_HEADING_LENGTH = 40;
+
+    private static final Set<String> SECTION_HEADINGS = Set.of(
+            "summary", "profile", "objective", "career objective", "professional summary", "about me",
+            "experience", "work experience", "professional experience", "employment history",
+            "education", "skills", "technical skills", "projects", "certifications", "achievements",
+            "awards", "publications", "references", "hobbies", "interests", "hobbies and interests",
+            "declaration", "personal details", "personal information", "languages", "languages known",
+            "extracurricular activities", "volunteer experience");
+
+    private ResumeSections() {
+    }
+
+    /** Splits the text by section; sections without content are left out. */
+    public static Map<Section, String> split(String text) {
+        Map<Section, StringBuilder> parts = new EnumMap<>(Section.class);
+        Section current = Section.HEADER;
+        for (String line : text.split("\\r?\\n")) {
+            String heading = headingKey(line.trim());
+            Section section = heading != null ? classify(heading) : null;
+            if (section != null) {
+                current = section;
+                continue;
+            }
+            parts.computeIfAbsent(current, k -> new StringBuilder()).append(line).append('\n');
+        }
+        Map<Section, String> sections = new EnumMap<>(Section.class);
+        parts.forEach((section, sb) -> {
+            String content = sb.toString().trim();
+            if (!content.isEmpty()) {
+                sections.put(section, content);
+            }
+        });
+        return sections;
+    }
+
+    /** Returns the normalized heading if the line looks like a section heading, otherwise null. */
+    static String headingKey(String line) {
+        if (line.isEmpty() || line.length() > MAX_HEADING_LENGTH || line.startsWith("- ")) {
+            return null;
+        }
+        String key = TRAILING_COLON.matcher(line).replaceAll("").toLowerCase(Locale.ROOT).replace("&", "and");
+        if (SECTION_HEADINGS.contains(key)) {
+            return key;
+        }
+        boolean upperCase = line.chars().anyMatch(Character::isLetter)
+                && line.chars().filter(Character::isLetter).allMatch(Character::isUpperCase);
+        return upperCase ? key : null;
+    }
+
+    /**
+     * Maps a heading to its section. Unknown all-caps lines (often company or
+     * person names) return null and do not start a new section.
+     */
+    static Section classify(String headingKey) {
+        if (headingKey.contains("summary") || headingKey.contains("profile") || headingKey.contains("objective")
+                || headingKey.equals("about me")) {
+            return Section.SUMMARY;
+        }
+        if (headingKey.contains("experience") || headingKey.contains("employment")
+                || headingKey.contains("work history")) {
+            return Section.EXPERIENCE;
+        }
+        if (headingKey.contains("education") || headingKey.contains("academic")) {
+            return Section.EDUCATION;
+        }
+        if (headingKey.contains("project")) {
+            return Section.PROJECTS;
+        }
+        if (headingKey.contains("skill") || headingKey.contains("technolog") || headingKey.contains("competenc")) {
+            return Section.SKILLS;
+        }
+        return SECTION_HEADINGS.contains(headingKey) ? Section.OTHER : null;
+    }
+}
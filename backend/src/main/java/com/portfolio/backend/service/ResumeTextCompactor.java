@@ -0,0 +1,144 @@
+package com.portfolio.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prepares extracted resume text for prompting. Normalizes whitespace and
+ * bullet glyphs, drops page-number footers and repeated lines (running page
+ * headers, duplicated text layers) and, when the estimated token count is
+ * still above the budget, removes low-value sections and finally truncates
+ * the tail. Output is deterministic, so the parse and analysis prompts keep
+ * an identical resume prefix.
+ */
+@Service
+public class ResumeTextCompactor {
+
+    private static final Pattern HORIZONTAL_SPACE = Pattern.compile("[\\t\\x0B\\f\\u00A0\\u2000-\\u200B\\u202F\\u3000 ]+");
+    private static final Pattern BULLET = Pattern.compile(
+            "^[\\u2022\\u2023\\u2043\\u25AA\\u25A0\\u25CF\\u25E6\\u25B6\\u25BA\\u27A2\\u2713\\u2714\\u00B7\\uF0A7\\uF0B7*\\-\\u2013\\u2014]+\\s*");
+    private static final Pattern PAGE_MARKER = Pattern.compile("(?i)^(page\\s*)?\\d{1,3}(\\s*(of|/)\\s*\\d{1,3})?$");
+
+    // Lines shorter than this are too likely to repeat legitimately (e.g. "- Java")
+    private static final int MIN_DEDUP_LENGTH = 20;
+
+    // Sections dropped first when the text is over budget
+    private static final Set<String> LOW_VALUE_SECTIONS = Set.of(
+            "references", "hobbies", "interests", "hobbies and interests", "declaration",
+            "personal details", "personal information", "languages known", "extracurricular activities");
+
+    private final boolean enabled;
+    private final int maxTokens;
+
+    public ResumeTextCompactor(
+            @Value("${resume.compaction.enabled:true}") boolean enabled,
+            @Value("${resume.compaction.max-tokens:3000}") int maxTokens) {
+        this.enabled = enabled;
+        this.maxTokens = maxTokens;
+    }
+
+    /**
+     * Rough token estimate for Llama-style tokenizers (about 3.5 characters per
+     * token for English prose mixed with names, dates and punctuation).
+     */
+    public static int estimateTokens(String text) {
+        return text == null ? 0 : (int) Math.ceil(text.length() / 3.5);
+    }
+
+    public String compact(String text) {
+        if (!enabled || text == null || text.isBlank()) {
+            return text;
+        }
+        List<String> lines = normalizeLines(text);
+        String compacted = String.join("\n", lines);
+
+        if (estimateTokens(compacted) > maxTokens) {
+            lines = dropLowValueSections(lines);
+            compacted = truncateToBudget(lines);
+        }
+        return compacted;
+    }
+
+    private List<String> normalizeLines(String text) {
+        String[] raw = text.split("\\r\\n|\\r|\\n");
+        List<String> lines = new ArrayList<>(raw.length);
+        Set<String> seen = new HashSet<>();
+        boolean previousBlank = true;
+        for (String line : raw) {
+            String normalized = HORIZONTAL_SPACE.matcher(line).replaceAll(" ").trim();
+            if (normalized.isEmpty()) {
+                if (!previousBlank) {
+                    lines.add("");
+                    previousBlank = true;
+                }
+                continue;
+            }
+            if (PAGE_MARKER.matcher(normalized).matches()) {
+                continue;
+            }
+            Matcher bullet = BULLET.matcher(normalized);
+            if (bullet.lookingAt() && bullet.end() < normalized.length()) {
+                normalized = "- " + normalized.substring(bullet.end());
+            }
+            if (normalized.length() >= MIN_DEDUP_LENGTH && !seen.add(normalized.toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+            lines.add(normalized);
+            previousBlank = false;
+        }
+        if (!lines.isEmpty() && lines.get(lines.size() - 1).isEmpty()) {
+            lines.remove(lines.size() - 1);
+        }
+        return lines;
+    }
+
+    private List<String> dropLowValueSections(List<String> lines) {
+        List<String> kept = new ArrayList<>(lines.size());
+        boolean skipping = false;
+        for (String line : lines) {
+            String heading = ResumeSections.headingKey(line);
+            if (heading != null && (LOW_VALUE_SECTIONS.contains(heading) || ResumeSections.classify(heading) != null)) {
+                skipping = LOW_VALUE_SECTIONS.contains(heading);
+            }
+            if (!skipping) {
+                kept.add(line);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Keeps whole lines from the top (contact details, summary, recent
+     * experience first). A first line longer than the whole budget, as from a
+     * PDF without line breaks, is cut at the budget instead.
+     */
+    private String truncateToBudget(List<String> lines) {
+        int maxChars = (int) (maxTokens * 3.5);
+        StringBuilder sb = new StringBuilder(Math.min(maxChars, 1 << 16));
+        for (String line : lines) {
+            if (sb.length() == 0 && line.length() > maxChars) {
+                int end = maxChars;
+                if (end > 0 && Character.isHighSurrogate(line.charAt(end - 1))) {
+                    end--;
+                }
+                return line.substring(0, end);
+            }
+            if (sb.length() + line.length() + 1 > maxChars) {
+                break;
+            }
+            if (sb.length() > 0) {
+                sb.append('\n');
+            }
+            sb.append(line);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,230 @@
+package com.portfolio.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.backend.dto.PortfolioData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Dictionary of canonical skills with their aliases and categories. All
+ * aliases are compiled into an Aho-Corasick automaton, so a resume is scanned
+ * for every known skill in one linear pass. Canonical names are interned and
+ * serve as stable keys ("JS", "Javascript" and "javascript" all become
+ * "JavaScript").
+ *
+ * Ambiguous aliases ("go", "rest", "excel") are only used to canonicalize
+ * skill names the model returns, never to detect skills in free text.
+ */
+@Component
+public class SkillTaxonomy {
+
+    public static final Set<String> CATEGORIES = Set.of("frontend", "backend", "design", "soft-skills", "tools",
+            "other");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public static final class CanonicalSkill {
+        private final String name;
+        private final String category;
+
+        private CanonicalSkill(String name, String category) {
+            this.name = name;
+            this.category = category;
+        }
+
+        public String getName() { return name; }
+        public String getCategory() { return category; }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> next = new HashMap<>(4);
+        private Node fail;
+        private Node outputLink; // nearest node on the fail chain that ends an alias
+        private CanonicalSkill skill; // set when an alias ends here
+        private int depth;
+    }
+
+    private record Hit(int start, int length, CanonicalSkill skill) {
+    }
+
+    private final Node root = new Node();
+    private final Map<String, CanonicalSkill> byAlias = new HashMap<>();
+    private final int detectedLevel;
+
+    public SkillTaxonomy(
+            @Value("${resume.skills.dictionary:skills/skill-dictionary.json}") String dictionaryPath,
+            @Value("${resume.skills.detected-level:60}") int detectedLevel) {
+        this.detectedLevel = detectedLevel;
+        JsonNode entries;
+        try (InputStream in = new ClassPathResource(dictionaryPath).getInputStream()) {
+            entries = new ObjectMapper().readTree(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot load skill dictionary " + dictionaryPath, e);
+        }
+        for (JsonNode entry : entries) {
+            CanonicalSkill skill = new CanonicalSkill(entry.path("name").asText().intern(),
+                    entry.path("category").asText("other").intern());
+            byAlias.put(normalize(skill.name), skill);
+            for (JsonNode alias : entry.path("aliases")) {
+                byAlias.put(normalize(alias.asText()), skill);
+                addPattern(normalize(alias.asText()), skill);
+            }
+            for (JsonNode alias : entry.path("ambiguous")) {
+                byAlias.put(normalize(alias.asText()), skill);
+            }
+        }
+        buildFailureLinks();
+        System.out.println("Loaded skill dictionary: " + entries.size() + " skills, " + byAlias.size() + " aliases");
+    }
+
+    /** Canonical skill for a name or alias, or null when it is not in the dictionary. */
+    public CanonicalSkill canonicalize(String name) {
+        return name == null ? null : byAlias.get(normalize(name));
+    }
+
+    /**
+     * Every dictionary skill mentioned in the text, in order of first
+     * appearance. Matches must sit on word boundaries; overlapping matches
+     * resolve to the longest ("React Native" rather than "React").
+     */
+    public List<CanonicalSkill> scan(String text) {
+        List<Hit> hits = new ArrayList<>();
+        Node state = root;
+        int n = text.length();
+        for (int i = 0; i < n; i++) {
+            char c = fold(text.charAt(i));
+            while (state != root && !state.next.containsKey(c)) {
+                state = state.fail;
+            }
+            state = state.next.getOrDefault(c, root);
+            Node match = state.skill != null ? state : state.outputLink;
+            for (; match != null; match = match.outputLink) {
+                int start = i - match.depth + 1;
+                if (isBoundary(text, start - 1) && isBoundary(text, i + 1)) {
+                    hits.add(new Hit(start, match.depth, match.skill));
+                }
+            }
+        }
+
+        hits.sort(Comparator.comparingInt(Hit::start).thenComparing(Comparator.comparingInt(Hit::length).reversed()));
+        Map<String, CanonicalSkill> found = new LinkedHashMap<>();
+        int coveredUntil = 0;
+        for (Hit hit : hits) {
+            if (hit.start() < coveredUntil) {
+                continue;
+            }
+            coveredUntil = hit.start() + hit.length();
+            found.putIfAbsent(hit.skill().name, hit.skill());
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    /**
+     * Canonicalizes the model's skills against the dictionary (name and
+     * category), drops duplicates keeping the highest level, and appends
+     * dictionary skills found in the text that the model missed.
+     */
+    public List<PortfolioData.Skill> merge(List<PortfolioData.Skill> modelSkills, String resumeText) {
+        Map<String, PortfolioData.Skill> merged = new LinkedHashMap<>();
+        if (modelSkills != null) {
+            for (PortfolioData.Skill skill : modelSkills) {
+                if (skill == null || skill.getName() == null || skill.getName().isBlank()) {
+                    continue;
+                }
+                CanonicalSkill canonical = canonicalize(skill.getName());
+                if (canonical != null) {
+                    skill.setName(canonical.name);
+                    skill.setCategory(canonical.category);
+                } else {
+                    skill.setName(skill.getName().trim());
+                    String category = skill.getCategory() == null ? ""
+                            : skill.getCategory().trim().toLowerCase(Locale.ROOT);
+                    skill.setCategory(CATEGORIES.contains(category) ? category : "other");
+                }
+                merged.merge(normalize(skill.getName()), skill, (a, b) -> level(b) > level(a) ? b : a);
+            }
+        }
+        if (resumeText != null) {
+            for (CanonicalSkill detected : scan(resumeText)) {
+                merged.computeIfAbsent(normalize(detected.name), k -> toSkill(detected));
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    private PortfolioData.Skill toSkill(CanonicalSkill canonical) {
+        PortfolioData.Skill skill = new PortfolioData.Skill();
+        skill.setName(canonical.name);
+        skill.setCategory(canonical.category);
+        skill.setLevel(detectedLevel);
+        return skill;
+    }
+
+    private void addPattern(String alias, CanonicalSkill skill) {
+        if (alias.isEmpty()) {
+            return;
+        }
+        Node node = root;
+        for (int i = 0; i < alias.length(); i++) {
+            Node parent = node;
+            node = node.next.computeIfAbsent(alias.charAt(i), k -> new Node());
+            node.depth = parent.depth + 1;
+        }
+        node.skill = skill;
+    }
+
+    private void buildFailureLinks() {
+        ArrayDeque<Node> queue = new ArrayDeque<>();
+        for (Node child : root.next.values()) {
+            child.fail = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (Map.Entry<Character, Node> edge : node.next.entrySet()) {
+                char c = edge.getKey();
+                Node child = edge.getValue();
+                Node fail = node.fail;
+                while (fail != root && !fail.next.containsKey(c)) {
+                    fail = fail.fail;
+                }
+                Node target = fail.next.get(c);
+                child.fail = target != null && target != child ? target : root;
+                child.outputLink = child.fail.skill != null ? child.fail : child.fail.outputLink;
+                queue.add(child);
+            }
+        }
+    }
+
+    private static int level(PortfolioData.Skill skill) {
+        return skill.getLevel() == null ? 0 : skill.getLevel();
+    }
+
+    private static boolean isBoundary(String text, int index) {
+        return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    /** Lower-cases and maps every whitespace character (e.g. line breaks) to a space. */
+    private static char fold(char c) {
+        return Character.isWhitespace(c) ? ' ' : Character.toLowerCase(c);
+    }
+
+    private static String normalize(String name) {
+        return WHITESPACE.matcher(name.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
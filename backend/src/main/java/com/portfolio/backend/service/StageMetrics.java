@@ -0,0 +1,41 @@
+package com.portfolio.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers for the stages of the resume pipeline (extraction, validation, LLM
+ * calls, user lookups, saving), published as resume.stage.duration tagged by
+ * stage with p50/p95/p99 and a percentile histogram. Each recording is also
+ * added to the RequestTrace bound to the current thread.
+ */
+@Component
+public class StageMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public StageMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** Records a stage that started at startNanos (System.nanoTime()) and ends now. */
+    public void record(String stage, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        Timer.builder("resume.stage.duration")
+                .description("Duration of resume pipeline stages")
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            trace.add(stage, nanos);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.portfolio.backend.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+/**
+ * An uploaded resume loaded back from the job table so it can be processed
+ * after the request has ended, possibly on another node. Exposes it through
+ * the MultipartFile interface the pipeline already works with.
+ */
+public class StoredResumeFile implements MultipartFile {
+
+    private final byte[] data;
+    private final String originalFilename;
+    private final String contentType;
+
+    public StoredResumeFile(byte[] data, String originalFilename, String contentType) {
+        this.data = data;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return data.length == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return data.length;
+    }
+
+    @Override
+    public byte[] getBytes() {
+        return data;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(data);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.write(dest.toPath(), data);
+    }
+}
@@ -0,0 +1,193 @@
+package com.portfolio.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+/**
+ * Incremental scanner for the JSON object produced by the model. Text is fed
+ * in token-sized chunks; whenever a top-level field (e.g. "fullName") or an
+ * element of a top-level array (e.g. "skills[2]") is complete it is reported
+ * to the listener. Anything before the first '{' (markdown fences, chatter) is
+ * ignored. Values that are not strict JSON are reported as raw text.
+ */
+public class StreamingJsonFieldParser {
+
+    @FunctionalInterface
+    public interface Listener {
+        void onField(String path, JsonNode value);
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Listener listener;
+    private final StringBuilder buffer = new StringBuilder();
+
+    private boolean started;
+    private boolean finished;
+    private int depth;
+    private boolean inString;
+    private boolean escape;
+
+    // State of the root object
+    private boolean expectingKey;
+    private int keyStart = -1;
+    private String currentKey;
+    private int valueStart = -1;
+    private boolean valueIsArray;
+
+    // State of the current element when the root value is an array
+    private int elementStart = -1;
+    private int elementIndex;
+
+    public StreamingJsonFieldParser(ObjectMapper objectMapper, Listener listener) {
+        this.objectMapper = objectMapper;
+        this.listener = listener;
+    }
+
+    public void feed(CharSequence chunk) {
+        for (int i = 0; i < chunk.length(); i++) {
+            accept(chunk.charAt(i));
+        }
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    private void accept(char c) {
+        // Chatter before the object is neither buffered nor scanned for strings: a
+        // stray quote there would otherwise hide the opening brace
+        if (!started) {
+            if (c == '{') {
+                started = true;
+                depth = 1;
+                expectingKey = true;
+                buffer.append(c);
+            }
+            return;
+        }
+        if (finished) {
+            return;
+        }
+        int pos = buffer.length();
+        buffer.append(c);
+
+        if (inString) {
+            if (escape) {
+                escape = false;
+            } else if (c == '\\') {
+                escape = true;
+            } else if (c == '"') {
+                inString = false;
+                onStringEnd(pos);
+            }
+            return;
+        }
+
+        switch (c) {
+            case '"' -> {
+                inString = true;
+                if (depth == 1 && expectingKey) {
+                    keyStart = pos + 1;
+                } else {
+                    onValueStart(pos, c);
+                }
+            }
+            case '{', '[' -> {
+                onValueStart(pos, c);
+                depth++;
+            }
+            case '}', ']' -> {
+                onScalarEnd(pos);
+                depth--;
+                onContainerEnd(pos);
+            }
+            case ',' -> {
+                onScalarEnd(pos);
+                if (depth == 1) {
+                    expectingKey = true;
+                }
+            }
+            case ':' -> {
+                // separator between key and value, nothing to track
+            }
+            default -> {
+                if (!Character.isWhitespace(c)) {
+                    onValueStart(pos, c);
+                }
+            }
+        }
+    }
+
+    private void onValueStart(int pos, char c) {
+        if (depth == 1 && !expectingKey && valueStart < 0) {
+            valueStart = pos;
+            valueIsArray = c == '[';
+            elementIndex = 0;
+            elementStart = -1;
+        } else if (depth == 2 && valueIsArray && valueStart >= 0 && elementStart < 0) {
+            elementStart = pos;
+        }
+    }
+
+    private void onStringEnd(int pos) {
+        if (depth == 1 && expectingKey && keyStart >= 0) {
+            currentKey = buffer.substring(keyStart, pos);
+            keyStart = -1;
+            expectingKey = false;
+        } else if (depth == 1 && valueStart >= 0 && buffer.charAt(valueStart) == '"') {
+            emit(currentKey, valueStart, pos + 1);
+            valueStart = -1;
+        } else if (depth == 2 && valueIsArray && elementStart >= 0 && buffer.charAt(elementStart) == '"') {
+            emit(currentKey + "[" + elementIndex++ + "]", elementStart, pos + 1);
+            elementStart = -1;
+        }
+    }
+
+    /** Completes a bare number/literal when its terminating ',', '}' or ']' is seen. */
+    private void onScalarEnd(int pos) {
+        if (depth == 1 && valueStart >= 0 && isBareScalar(valueStart)) {
+            emit(currentKey, valueStart, pos);
+            valueStart = -1;
+        } else if (depth == 2 && valueIsArray && elementStart >= 0 && isBareScalar(elementStart)) {
+            emit(currentKey + "[" + elementIndex++ + "]", elementStart, pos);
+            elementStart = -1;
+        }
+    }
+
+    private void onContainerEnd(int pos) {
+        if (depth == 0) {
+            finished = true;
+        } else if (depth == 1 && valueStart >= 0) {
+            emit(currentKey, valueStart, pos + 1);
+            valueStart = -1;
+            valueIsArray = false;
+        } else if (depth == 2 && valueIsArray && elementStart >= 0) {
+            emit(currentKey + "[" + elementIndex++ + "]", elementStart, pos + 1);
+            elementStart = -1;
+        }
+    }
+
+    private boolean isBareScalar(int start) {
+        char first = buffer.charAt(start);
+        return first != '"' && first != '{' && first != '[';
+    }
+
+    private void emit(String path, int start, int end) {
+        if (path == null) {
+            return;
+        }
+        String raw = buffer.substring(start, end).trim();
+        JsonNode value;
+        try {
+            value = objectMapper.readTree(raw);
+        } catch (Exception e) {
+            value = TextNode.valueOf(raw);
+        }
+        try {
+            listener.onField(path, value);
+        } catch (Exception e) {
+            System.err.println("Streaming field listener failed for " + path + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.portfolio.backend.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LenientPercentDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void readsTheFormsTheModelWrites() {
+        assertEquals(80, LenientPercentDeserializer.parse("80"));
+        assertEquals(80, LenientPercentDeserializer.parse("80%"));
+        assertEquals(80, LenientPercentDeserializer.parse("70-90"));
+        assertEquals(80, LenientPercentDeserializer.parse("70 – 90"));
+        assertEquals(75, LenientPercentDeserializer.parse("about 75 out of 100"));
+    }
+
+    @Test
+    void fallsBackAndClamps() {
+        assertEquals(60, LenientPercentDeserializer.parse(null));
+        assertEquals(60, LenientPercentDeserializer.parse("advanced"));
+        assertEquals(100, LenientPercentDeserializer.parse("250"));
+        assertEquals(100, LenientPercentDeserializer.parse("1000"));
+    }
+
+    @Test
+    void ignoresNonAsciiDigits() {
+        // Arabic-Indic and fullwidth digits are not read as numbers
+        assertEquals(60, LenientPercentDeserializer.parse("٨٠"));
+        assertEquals(60, LenientPercentDeserializer.parse("８０%"));
+        assertEquals(70, LenientPercentDeserializer.parse("70-٩٠"));
+    }
+
+    @Test
+    void deserializesEveryTokenType() throws Exception {
+        assertEquals(85, read("85").getScore());
+        assertEquals(85, read("84.6").getScore());
+        assertEquals(0, read("-5").getScore());
+        assertEquals(90, read("\"90%\"").getScore());
+        assertNull(read("null").getScore());
+        assertEquals(60, read("{\"value\": 90}").getScore());
+        assertEquals(60, read("[90]").getScore());
+    }
+
+    private ResumeAnalysis read(String score) throws Exception {
+        return objectMapper.readValue("{\"score\": " + score + ", \"summary\": \"ok\"}", ResumeAnalysis.class);
+    }
+}
@@ -0,0 +1,73 @@
+package com.portfolio.backend.service;
+
+import com.portfolio.backend.dto.PortfolioData;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Time ContactExtractor takes per resume, for the whole fill() and for the
+ * phone and name scans on their own:
+ *
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.portfolio.backend.service.ContactExtractorBenchmark \
+ *       -Dexec.args="[resume.txt] [iterations]"
+ *
+ * Without a file a generated two-page resume is used, with the phone number
+ * after the dated experience entries so that the date ranges are scanned
+ * first.
+ */
+public class ContactExtractorBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String text = args.length > 0 ? Files.readString(Path.of(args[0])) : resume();
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 50000;
+        ContactExtractor extractor = new ContactExtractor();
+
+        PortfolioData sample = new PortfolioData();
+        extractor.fill(sample, text);
+        System.out.printf("resume: %d chars; email %s, phone %s, location %s, linkedin %s, github %s%n",
+                text.length(), sample.getEmail(), sample.getPhone(), sample.getLocation(), sample.getLinkedin(),
+                sample.getGithub());
+
+        report("fill", () -> extractor.fill(new PortfolioData(), text), iterations);
+        report("findPhone", () -> extractor.findPhone(text), iterations);
+        report("inferName", () -> extractor.inferName(text), iterations);
+    }
+
+    private static void report(String name, Runnable step, int iterations) {
+        // The first half warms up the JIT and is not measured
+        for (int i = 0; i < iterations / 2; i++) {
+            step.run();
+        }
+        double[] times = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            step.run();
+            times[i] = (System.nanoTime() - start) / 1e3;
+        }
+        Arrays.sort(times);
+        System.out.printf("%-10s p50 %7.1f us, p95 %7.1f us%n", name, times[iterations / 2],
+                times[Math.min(iterations - 1, iterations * 95 / 100)]);
+    }
+
+    private static String resume() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Jane Doe\nSenior Backend Engineer\n");
+        sb.append("Berlin, Germany | jane.doe@example.com | linkedin.com/in/janedoe | github.com/janedoe\n\n");
+        sb.append("SUMMARY\nEngineer with ten years of experience building payment systems and public APIs.\n\n");
+        sb.append("EXPERIENCE\n");
+        for (int i = 0; i < 8; i++) {
+            sb.append("Company ").append(i).append(" - Senior Engineer, 2014.0").append(i % 9 + 1)
+                    .append(" - 2016.1").append(i % 3).append('\n');
+            for (int bullet = 0; bullet < 4; bullet++) {
+                sb.append("- Built and ran the billing service on Java 17, Spring Boot and Postgres; cut p95 ")
+                        .append("latency by 40% and moved 12 services to Kubernetes (github.com/janedoe/billing).\n");
+            }
+        }
+        sb.append("\nEDUCATION\nB.Sc. Computer Science, TU Berlin, 2008 - 2012\n\n");
+        sb.append("CONTACT\nPhone: +49 (30) 1234-5678\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,48 @@
+package com.portfolio.backend.service;
+
+import com.portfolio.backend.dto.PortfolioData;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ContactExtractorTest {
+
+    private final ContactExtractor extractor = new ContactExtractor();
+
+    @Test
+    void findsPhonesInCommonFormats() {
+        assertEquals("+1 (555) 123-4567", extractor.findPhone("Jane Doe | +1 (555) 123-4567 | jane@x.com"));
+        assertEquals("555.123.4567", extractor.findPhone("Phone: 555.123.4567"));
+        assertEquals("+44 20 7946 0958", extractor.findPhone("Tel +44 20 7946 0958\nLondon"));
+        assertEquals("+91 98765 43210", extractor.findPhone("Mobile: +91 98765 43210"));
+    }
+
+    @Test
+    void skipsYearsAndDateRanges() {
+        assertNull(extractor.findPhone("Engineer at Foo, 2019 - 2021"));
+        assertNull(extractor.findPhone("Engineer at Foo, 2019.01 - 2020.05"));
+        assertNull(extractor.findPhone("Engineer at Foo (01.2019 - 05.2020)"));
+        assertEquals("555-123-4567", extractor.findPhone("Foo Corp 2019.01 - 2020.05\nCall 555-123-4567"));
+    }
+
+    @Test
+    void skipsDigitsAttachedToWords() {
+        assertNull(extractor.findPhone("Order ID A1234567890"));
+        assertNull(extractor.findPhone("No phone here"));
+    }
+
+    @Test
+    void fillsContactFieldsFromTheText() {
+        PortfolioData portfolio = new PortfolioData();
+        extractor.fill(portfolio, "Jane Doe\nAustin, Texas | jane@example.com | 555-123-4567\n"
+                + "linkedin.com/in/janedoe  github.com/janedoe/repo github.com/janedoe\n\nExperience\n2019.01 - 2020.05");
+
+        assertEquals("jane@example.com", portfolio.getEmail());
+        assertEquals("555-123-4567", portfolio.getPhone());
+        assertEquals("Austin, Texas", portfolio.getLocation());
+        assertEquals("https://linkedin.com/in/janedoe", portfolio.getLinkedin());
+        assertEquals("https://github.com/janedoe", portfolio.getGithub());
+        assertEquals("Jane Doe", extractor.inferName("Jane Doe\n555-123-4567"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.portfolio.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DocumentFormatTest {
+
+    @Test
+    void recognizesDocxByItsPackageEntries() throws Exception {
+        assertEquals(DocumentFormat.DOCX, sniff(DocumentParserService.sample(DocumentFormat.DOCX)));
+        assertEquals(DocumentFormat.DOCX, sniff(zip("word/document.xml", "docProps/core.xml")));
+    }
+
+    @Test
+    void sendsOtherZipsToAutoDetection() throws Exception {
+        // ODT starts with an uncompressed mimetype entry
+        assertEquals(DocumentFormat.OTHER, sniff(zip("mimetype", "content.xml", "META-INF/manifest.xml")));
+        assertEquals(DocumentFormat.OTHER, sniff(zip("resume.pdf")));
+    }
+
+    @Test
+    void recognizesFormatsByMagicBytes() throws Exception {
+        assertEquals(DocumentFormat.PDF, sniff("%PDF-1.7\n".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(DocumentFormat.PDF, sniff("garbage\n%PDF-1.4\n".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(DocumentFormat.RTF, sniff("{\\rtf1\\ansi Resume}".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(DocumentFormat.DOC, sniff(new byte[] { (byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0,
+                (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1, 0, 0 }));
+        assertEquals(DocumentFormat.TEXT, sniff("Jane Doe\njane@example.com\n".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(DocumentFormat.OTHER, sniff("<html><body>Jane</body></html>".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(DocumentFormat.OTHER, sniff(new byte[0]));
+    }
+
+    @Test
+    void leavesTheStreamAtItsStart() throws Exception {
+        ByteArrayInputStream in = new ByteArrayInputStream("%PDF-1.7\n".getBytes(StandardCharsets.US_ASCII));
+        DocumentFormat.sniff(in);
+        assertEquals('%', in.read());
+    }
+
+    private static DocumentFormat sniff(byte[] data) throws IOException {
+        return DocumentFormat.sniff(new ByteArrayInputStream(data));
+    }
+
+    private static byte[] zip(String... entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (String entry : entries) {
+                zip.putNextEntry(new ZipEntry(entry));
+                zip.write("<x/>".getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,105 @@
+package com.portfolio.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentParserServiceTest {
+
+    private ExecutorService executor;
+    private DocumentParserService service;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service = new DocumentParserService(new StageMetrics(registry), registry, executor, executor);
+        ReflectionTestUtils.setField(service, "tempDir", "");
+        ReflectionTestUtils.setField(service, "pdfMaxMemoryBytes", 4194304L);
+        ReflectionTestUtils.setField(service, "parallelMinPages", 20);
+        ReflectionTestUtils.setField(service, "minPagesPerChunk", 5);
+        ReflectionTestUtils.setField(service, "extractionThreads", 4);
+        ReflectionTestUtils.setField(service, "timeoutMs", 30000L);
+        ReflectionTestUtils.setField(service, "maxChars", 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void pageRangesCoverEveryPageOnceInOrder() {
+        for (int pages = 1; pages <= 60; pages++) {
+            for (int chunks = 1; chunks <= Math.min(pages, 8); chunks++) {
+                int[][] ranges = DocumentParserService.pageRanges(pages, chunks);
+                assertEquals(chunks, ranges.length);
+                int next = 1;
+                for (int[] range : ranges) {
+                    assertEquals(next, range[0], pages + " pages in " + chunks);
+                    int size = range[1] - range[0] + 1;
+                    assertTrue(size >= pages / chunks && size <= pages / chunks + 1, pages + " pages in " + chunks);
+                    next = range[1] + 1;
+                }
+                assertEquals(pages + 1, next);
+            }
+        }
+    }
+
+    @Test
+    void parallelRangesAreWrittenInPageOrder() throws Exception {
+        String text = service.extractTextFromBytes(pdf(42), "application/pdf");
+
+        int last = -1;
+        for (int page = 1; page <= 42; page++) {
+            int at = text.indexOf("Page " + page + " end");
+            assertTrue(at > last, "page " + page + " out of order");
+            last = at;
+        }
+    }
+
+    @Test
+    void parallelRangesShareTheCharacterLimit() throws Exception {
+        byte[] pdf = pdf(40);
+        int length = service.extractTextFromBytes(pdf, "application/pdf").length();
+        ReflectionTestUtils.setField(service, "maxChars", (long) length / 2);
+
+        DocumentExtractionException e = assertThrows(DocumentExtractionException.class,
+                () -> service.extractTextFromBytes(pdf, "application/pdf"));
+        assertEquals("max-chars", e.getReason());
+        assertEquals(413, e.getStatus());
+    }
+
+    private static byte[] pdf(int pages) throws Exception {
+        try (PDDocument document = new PDDocument()) {
+            for (int page = 1; page <= pages; page++) {
+                PDPage pdPage = new PDPage();
+                document.addPage(pdPage);
+                try (PDPageContentStream content = new PDPageContentStream(document, pdPage)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 12);
+                    content.newLineAtOffset(50, 700);
+                    content.showText("Page " + page + " end");
+                    content.endText();
+                }
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            document.save(bytes);
+            return bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.portfolio.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.tika.Tika;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * DOCX extraction latency before and after format sniffing and parser
+ * warm-up. Run each mode in its own JVM, since the first call is the one
+ * that pays for class loading:
+ *
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.portfolio.backend.service.DocxExtractionBenchmark \
+ *       -Dexec.args="before [resume.docx] [iterations]"
+ *
+ * "before" extracts with Tika.parseToString (content-type routing, lazily
+ * initialized facade); "after" warms the parsers up as at startup and
+ * extracts through DocumentParserService. Without a file a small generated
+ * DOCX is used.
+ */
+public class DocxExtractionBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        boolean after = args.length > 0 && args[0].equals("after");
+        byte[] docx = args.length > 1 ? Files.readAllBytes(Path.of(args[1]))
+                : DocumentParserService.sample(DocumentFormat.DOCX);
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Extractor extractor;
+            if (after) {
+                SimpleMeterRegistry registry = new SimpleMeterRegistry();
+                DocumentParserService service = new DocumentParserService(new StageMetrics(registry), registry,
+                        executor, executor);
+                ReflectionTestUtils.setField(service, "tempDir", "");
+                ReflectionTestUtils.setField(service, "pdfMaxMemoryBytes", 4194304L);
+                long start = System.nanoTime();
+                service.warmUp();
+                System.out.printf("warm-up: %.1f ms%n", (System.nanoTime() - start) / 1e6);
+                extractor = bytes -> {
+                    StringWriter out = new StringWriter();
+                    service.extractText(new ByteArrayInputStream(bytes), "application/octet-stream", out);
+                    return out.toString();
+                };
+            } else {
+                Tika tika = new Tika();
+                extractor = bytes -> tika.parseToString(new ByteArrayInputStream(bytes));
+            }
+
+            long start = System.nanoTime();
+            extractor.extract(docx);
+            System.out.printf("%s first DOCX: %.1f ms%n", after ? "after" : "before",
+                    (System.nanoTime() - start) / 1e6);
+
+            double[] times = new double[iterations];
+            for (int i = 0; i < iterations; i++) {
+                start = System.nanoTime();
+                extractor.extract(docx);
+                times[i] = (System.nanoTime() - start) / 1e6;
+            }
+            Arrays.sort(times);
+            System.out.printf("%s steady state over %d runs: p50 %.2f ms, p95 %.2f ms%n", after ? "after" : "before",
+                    iterations, times[iterations / 2], times[Math.min(iterations - 1, iterations * 95 / 100)]);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface Extractor {
+        String extract(byte[] bytes) throws Exception;
+    }
+}
@@ -0,0 +1,142 @@
+package com.portfolio.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.portfolio.backend.dto.PortfolioData;
+
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Time to turn a raw model response into a PortfolioData: the former chain
+ * (markdown stripping, a greedy brace regex, four regex passes over skill
+ * levels and a JSON tree round trip) against one pass of Jackson over
+ * JsonRepairReader.
+ *
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.portfolio.backend.service.JsonRepairBenchmark \
+ *       -Dexec.args="[iterations] [skills]"
+ *
+ * The response is generated: chatter and a ```json fence around a portfolio
+ * whose skill levels mix numbers, "80%", quoted numbers and bare ranges.
+ */
+public class JsonRepairBenchmark {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int skills = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        String response = response(skills);
+
+        assertSameLevels(regexPipeline(response), repairReader(response));
+        System.out.printf("response: %d chars, %d skills%n", response.length(), skills);
+        report("regex pipeline", () -> regexPipeline(response), iterations);
+        report("JsonRepairReader", () -> repairReader(response), iterations);
+    }
+
+    private static void report(String name, Parser parser, int iterations) throws Exception {
+        // The first half warms up the JIT and is not measured
+        for (int i = 0; i < iterations / 2; i++) {
+            parser.parse();
+        }
+        double[] times = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            parser.parse();
+            times[i] = (System.nanoTime() - start) / 1e3;
+        }
+        Arrays.sort(times);
+        System.out.printf("%-17s p50 %8.1f us, p95 %8.1f us%n", name, times[iterations / 2],
+                times[Math.min(iterations - 1, iterations * 95 / 100)]);
+    }
+
+    private static PortfolioData repairReader(String text) throws Exception {
+        try (Reader reader = new JsonRepairReader(text)) {
+            return OBJECT_MAPPER.readValue(reader, PortfolioData.class);
+        }
+    }
+
+    // The parseJsonResponse chain as it was before JsonRepairReader, patterns compiled per call as there
+
+    private static PortfolioData regexPipeline(String text) throws Exception {
+        text = text.replaceAll("```json", "").replaceAll("```", "").trim();
+        Matcher matcher = Pattern.compile("\\{[\\s\\S]*\\}", Pattern.DOTALL).matcher(text);
+        if (!matcher.find()) {
+            throw new Exception("No valid JSON found in response");
+        }
+        String jsonText = matcher.group();
+        jsonText = replaceLevel(jsonText, "\\\"level\\\"\\s*:\\s*(\\d{1,3})\\s*[-–]\\s*(\\d{1,3})", true);
+        jsonText = replaceLevel(jsonText, "\\\"level\\\"\\s*:\\s*\\\"(\\d{1,3})\\s*[-–]\\s*(\\d{1,3})\\\"", true);
+        jsonText = replaceLevel(jsonText, "\\\"level\\\"\\s*:\\s*\\\"(\\d{1,3})%\\\"", false);
+        jsonText = replaceLevel(jsonText, "\\\"level\\\"\\s*:\\s*\\\"(\\d{1,3})\\\"", false);
+        jsonText = normalizeSkillLevels(jsonText);
+        return OBJECT_MAPPER.readValue(jsonText, PortfolioData.class);
+    }
+
+    private static String replaceLevel(String input, String regex, boolean range) {
+        StringBuffer sb = new StringBuffer();
+        Matcher m = Pattern.compile(regex).matcher(input);
+        while (m.find()) {
+            int value = range ? (Integer.parseInt(m.group(1)) + Integer.parseInt(m.group(2))) / 2
+                    : Integer.parseInt(m.group(1));
+            m.appendReplacement(sb, Matcher.quoteReplacement("\"level\": " + Math.max(0, Math.min(100, value))));
+        }
+        m.appendTail(sb);
+        return sb.toString();
+    }
+
+    private static String normalizeSkillLevels(String jsonText) throws Exception {
+        JsonNode root = OBJECT_MAPPER.readTree(jsonText);
+        if (root instanceof ObjectNode objectNode && objectNode.get("skills") instanceof ArrayNode skills) {
+            for (JsonNode skill : skills) {
+                JsonNode level = skill.get("level");
+                if (skill instanceof ObjectNode skillObject && level != null && level.isTextual()) {
+                    Matcher num = Pattern.compile("(\\d{1,3})").matcher(level.asText());
+                    skillObject.set("level", IntNode.valueOf(num.find() ? Integer.parseInt(num.group(1)) : 60));
+                }
+            }
+        }
+        return OBJECT_MAPPER.writeValueAsString(root);
+    }
+
+    private static String response(int skills) {
+        String[] levels = { "85", "\"80%\"", "\"75\"", "70-90", "\"60-80\"" };
+        StringBuilder sb = new StringBuilder("Sure! Here is the portfolio extracted from the resume:\n```json\n{\n");
+        sb.append("  \"fullName\": \"Jane Doe\",\n  \"headline\": \"Senior Backend Engineer\",\n");
+        sb.append("  \"about\": \"Engineer with ten years of experience building payment systems {and APIs}.\",\n");
+        sb.append("  \"skills\": [\n");
+        for (int i = 0; i < skills; i++) {
+            sb.append("    {\"name\": \"Skill ").append(i).append("\", \"level\": ").append(levels[i % levels.length])
+                    .append(", \"category\": \"backend\"}").append(i < skills - 1 ? ",\n" : "\n");
+        }
+        sb.append("  ],\n  \"experience\": [\n");
+        for (int i = 0; i < 5; i++) {
+            sb.append("    {\"company\": \"Company ").append(i).append("\", \"role\": \"Engineer\", ")
+                    .append("\"period\": \"2019 - 2021\", \"description\": \"Built and ran the billing service; ")
+                    .append("cut p95 latency by 40% and moved 12 services to Kubernetes.\"}")
+                    .append(i < 4 ? ",\n" : "\n");
+        }
+        sb.append("  ]\n}\n```\nLet me know if you need anything else.");
+        return sb.toString();
+    }
+
+    private static void assertSameLevels(PortfolioData expected, PortfolioData actual) {
+        for (int i = 0; i < expected.getSkills().size(); i++) {
+            Integer a = expected.getSkills().get(i).getLevel();
+            Integer b = actual.getSkills().get(i).getLevel();
+            if (!a.equals(b)) {
+                throw new IllegalStateException("Skill " + i + ": regex pipeline " + a + ", JsonRepairReader " + b);
+            }
+        }
+    }
+
+    private interface Parser {
+        PortfolioData parse() throws Exception;
+    }
+}
@@ -0,0 +1,75 @@
+package com.portfolio.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.backend.dto.ResumeAnalysis;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonRepairReaderTest {
+
+    @Test
+    void skipsChatterAndFencesAroundTheObject() throws Exception {
+        assertEquals("{\"a\": 1}", repair("Sure! Here is the JSON:\n```json\n{\"a\": 1}\n```\nLet me know."));
+    }
+
+    @Test
+    void stopsAfterTheMatchingBrace() throws Exception {
+        assertEquals("{\"a\": {\"b\": [1, 2]}}", repair("{\"a\": {\"b\": [1, 2]}} {\"c\": 3}"));
+    }
+
+    @Test
+    void quotesBareRanges() throws Exception {
+        assertEquals("{\"level\": \"70-90\"}", repair("{\"level\": 70-90}"));
+        assertEquals("{\"level\": \"70 - 90\"}", repair("{\"level\": 70 - 90}"));
+        assertEquals("{\"level\": \"70–90\"}", repair("{\"level\": 70–90}"));
+    }
+
+    @Test
+    void leavesNumbersAndStringsAlone() throws Exception {
+        assertEquals("{\"a\": -5, \"b\": 2.5, \"c\": [1, -2]}", repair("{\"a\": -5, \"b\": 2.5, \"c\": [1, -2]}"));
+        String strings = "{\"s\": \"a } 70-90 {\", \"t\": \"say \\\"}\\\" \", \"u\": 1}";
+        assertEquals(strings, repair(strings));
+    }
+
+    @Test
+    void yieldsNothingWithoutAnObject() throws Exception {
+        assertEquals("", repair("no JSON here"));
+        assertEquals("", repair(""));
+    }
+
+    @Test
+    void feedsJacksonDirectly() throws Exception {
+        try (Reader reader = new JsonRepairReader("```json\n{\"score\": 70-90, \"summary\": \"ok\"}\n```")) {
+            ResumeAnalysis analysis = new ObjectMapper().readValue(reader, ResumeAnalysis.class);
+            assertEquals(80, analysis.getScore());
+            assertEquals("ok", analysis.getSummary());
+        }
+    }
+
+    @Test
+    void readsInSmallChunks() throws Exception {
+        String json = "{\"level\": 70 - 90, \"name\": \"Jane\"}";
+        StringBuilder out = new StringBuilder();
+        try (Reader reader = new JsonRepairReader("text " + json)) {
+            char[] buffer = new char[3];
+            int n;
+            while ((n = reader.read(buffer, 0, buffer.length)) != -1) {
+                out.append(buffer, 0, n);
+            }
+        }
+        assertEquals("{\"level\": \"70 - 90\", \"name\": \"Jane\"}", out.toString());
+    }
+
+    private static String repair(String text) throws IOException {
+        StringWriter out = new StringWriter();
+        try (Reader reader = new JsonRepairReader(text)) {
+            reader.transferTo(out);
+        }
+        return out.toString();
+    }
+}
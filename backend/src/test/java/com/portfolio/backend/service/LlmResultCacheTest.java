@@ -0,0 +1,116 @@
+package com.portfolio.backend.service;
+
+import com.portfolio.backend.entity.LlmResultCacheEntry;
+import com.portfolio.backend.repository.LlmResultCacheRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:llm-result-cache;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LlmResultCacheTest {
+
+    @Autowired
+    private LlmResultCacheRepository repository;
+
+    private LlmResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        cache = new LlmResultCache(repository, 10);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "persistent", true);
+        ReflectionTestUtils.setField(cache, "ttlHours", 24L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void purgesOnlyEntriesOlderThanTheTtl() {
+        store("old", LocalDateTime.now().minusHours(25));
+        store("fresh", LocalDateTime.now().minusHours(1));
+
+        assertEquals(1, cache.purgeExpired());
+        assertTrue(repository.findById("fresh").isPresent());
+        assertTrue(repository.findById("old").isEmpty());
+        assertEquals(1L, cache.stats().get("purged"));
+    }
+
+    @Test
+    void ignoresExpiredRowsNotYetPurged() {
+        store("old", LocalDateTime.now().minusHours(25));
+        store("fresh", LocalDateTime.now().minusHours(1));
+
+        assertTrue(cache.get("old", Map.class, false).isEmpty());
+        assertEquals("value", cache.get("fresh", Map.class, false).orElseThrow().get("key"));
+    }
+
+    @Test
+    void overwritesAnExistingKey() {
+        store("key", LocalDateTime.now().minusHours(30));
+
+        cache.put("key", "portfolio", "model", "v1", Map.of("key", "new"));
+
+        LlmResultCacheEntry entry = repository.findById("key").orElseThrow();
+        assertEquals("{\"key\":\"new\"}", entry.getPayloadJson());
+        assertTrue(entry.getCreatedAt().isAfter(LocalDateTime.now().minusMinutes(1)));
+        // A fresh cache has no memory tier, so this hit comes from the overwritten row
+        LlmResultCache restarted = new LlmResultCache(repository, 10);
+        ReflectionTestUtils.setField(restarted, "enabled", true);
+        ReflectionTestUtils.setField(restarted, "persistent", true);
+        ReflectionTestUtils.setField(restarted, "ttlHours", 24L);
+        assertEquals("new", restarted.get("key", Map.class, false).orElseThrow().get("key"));
+        restarted.shutdown();
+    }
+
+    @Test
+    void expiresMemoryEntriesWithTheTtl() {
+        ReflectionTestUtils.setField(cache, "persistent", false);
+        cache.put("key", "portfolio", "model", "v1", Map.of("key", "value"));
+        assertTrue(cache.get("key", Map.class, false).isPresent());
+
+        ReflectionTestUtils.setField(cache, "ttlHours", -1L);
+        assertTrue(cache.get("key", Map.class, false).isPresent(), "a non-positive TTL keeps entries");
+        ReflectionTestUtils.setField(cache, "ttlHours", 24L);
+        ReflectionTestUtils.setField(cache, "clock", Clock.offset(Clock.systemDefaultZone(), Duration.ofHours(25)));
+        assertTrue(cache.get("key", Map.class, false).isEmpty());
+        assertEquals(0, cache.stats().get("memoryEntries"));
+    }
+
+    private void store(String key, LocalDateTime createdAt) {
+        LlmResultCacheEntry entry = new LlmResultCacheEntry();
+        entry.setCacheKey(key);
+        entry.setKind("portfolio");
+        entry.setModel("model");
+        entry.setPromptVersion("v1");
+        entry.setPayloadJson("{\"key\":\"value\"}");
+        entry.setCreatedAt(createdAt);
+        repository.save(entry);
+    }
+}
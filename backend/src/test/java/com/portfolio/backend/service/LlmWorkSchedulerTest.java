@@ -0,0 +1,146 @@
+package com.portfolio.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LlmWorkSchedulerTest {
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void runsAtMostConcurrencyCallsAtOnce() throws Exception {
+        LlmWorkScheduler scheduler = new LlmWorkScheduler(2, 32, 10_000);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            calls.add(callers.submit(() -> scheduler.run(LlmCallContext.interactive("user"), () -> {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                active.decrementAndGet();
+                return null;
+            })));
+        }
+        for (Future<?> call : calls) {
+            call.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(2, maxActive.get());
+        assertEquals(0, scheduler.stats().get("running"));
+    }
+
+    @Test
+    void rejectsWhenTheQueueIsFull() throws Exception {
+        LlmWorkScheduler scheduler = new LlmWorkScheduler(1, 1, 10_000);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Future<?> holder = callers.submit(() -> scheduler.run(LlmCallContext.interactive("a"), () -> {
+            started.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        }));
+        started.await();
+        Future<?> waiting = callers.submit(() -> scheduler.run(LlmCallContext.interactive("b"), () -> null));
+        awaitQueued(scheduler, 1);
+
+        LlmQueueFullException e = assertThrows(LlmQueueFullException.class,
+                () -> scheduler.run(LlmCallContext.interactive("c"), () -> null));
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+        waiting.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void timesOutAtTheRequestDeadline() throws Exception {
+        LlmWorkScheduler scheduler = new LlmWorkScheduler(1, 4, 10_000);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Future<?> holder = callers.submit(() -> scheduler.run(LlmCallContext.interactive("a"), () -> {
+            started.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        }));
+        started.await();
+
+        LlmCallContext shortDeadline = new LlmCallContext(LlmPriority.INTERACTIVE, "b", false, 50);
+        assertThrows(LlmQueueFullException.class, () -> scheduler.run(shortDeadline, () -> null));
+        assertEquals(0, scheduler.stats().get("queued"));
+
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void servesInteractiveFirstAndUsersRoundRobin() throws Exception {
+        LlmWorkScheduler scheduler = new LlmWorkScheduler(1, 32, 10_000);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Future<?> holder = callers.submit(() -> scheduler.run(LlmCallContext.interactive("holder"), () -> {
+            started.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        }));
+        started.await();
+
+        List<String> order = new CopyOnWriteArrayList<>();
+        List<Future<?>> calls = new ArrayList<>();
+        String[][] submissions = {
+                { "BATCH", "batch" }, { "INTERACTIVE", "alice" }, { "INTERACTIVE", "alice" },
+                { "INTERACTIVE", "bob" } };
+        for (String[] submission : submissions) {
+            LlmCallContext context = new LlmCallContext(LlmPriority.valueOf(submission[0]), submission[1], false);
+            calls.add(callers.submit(() -> scheduler.run(context, () -> order.add(submission[1]))));
+            awaitQueued(scheduler, calls.size());
+        }
+
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+        for (Future<?> call : calls) {
+            call.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(List.of("alice", "bob", "alice", "batch"), order);
+    }
+
+    @Test
+    void extraSlotsOnlyWhenFreeAndNothingWaits() throws Exception {
+        LlmWorkScheduler scheduler = new LlmWorkScheduler(2, 32, 10_000);
+        assertTrue(scheduler.tryAcquireExtra());
+        assertTrue(scheduler.tryAcquireExtra());
+        assertFalse(scheduler.tryAcquireExtra());
+
+        // A queued call gets the slot an extra gives back
+        Future<?> waiting = callers.submit(() -> scheduler.run(LlmCallContext.interactive("a"), () -> null));
+        awaitQueued(scheduler, 1);
+        scheduler.releaseExtra();
+        waiting.get(10, TimeUnit.SECONDS);
+
+        scheduler.releaseExtra();
+        assertEquals(0, scheduler.stats().get("running"));
+    }
+
+    private static void awaitQueued(LlmWorkScheduler scheduler, int queued) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Integer.valueOf(queued).equals(scheduler.stats().get("queued"))) {
+            assertTrue(System.currentTimeMillis() < deadline, "calls never queued");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.portfolio.backend.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Runs the pool against stub Ollama backends on local ports. */
+class OllamaEndpointPoolTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final List<StubBackend> backends = new ArrayList<>();
+    private final List<OllamaEndpointPool> pools = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        pools.forEach(OllamaEndpointPool::shutdown);
+        backends.forEach(backend -> backend.server.stop(0));
+    }
+
+    @Test
+    void ejectsABackendAfterFailureThresholdFailedCalls() throws Exception {
+        StubBackend failing = backend("a", 0);
+        StubBackend healthy = backend("b", 0);
+        failing.status = 500;
+        // No prober, so only the calls below count towards the ejection
+        OllamaEndpointPool pool = pool(new LlmWorkScheduler(2, 32, 10_000), false, 0, failing, healthy);
+
+        int failures = 0;
+        for (int i = 0; i < 20 && failures < 2; i++) {
+            try {
+                pool.execute(this::generate);
+            } catch (IOException e) {
+                failures++;
+                assertEquals(failures < 2, backendStats(pool, 0).get("healthy"));
+            }
+        }
+        assertEquals(2, failures);
+        for (int i = 0; i < 5; i++) {
+            assertEquals("b", pool.execute(this::generate));
+        }
+    }
+
+    @Test
+    void ejectsOnFailedProbesAndReadmitsAfterASuccessfulOne() throws Exception {
+        StubBackend probed = backend("a", 0);
+        StubBackend healthy = backend("b", 0);
+        probed.probeStatus = 500;
+        OllamaEndpointPool pool = pool(new LlmWorkScheduler(2, 32, 10_000), false, 50, probed, healthy);
+
+        waitUntil(() -> Boolean.FALSE.equals(backendStats(pool, 0).get("healthy")));
+        assertTrue(probed.probeCalls.get() >= 2, "ejected before failure-threshold probes failed");
+        for (int i = 0; i < 5; i++) {
+            assertEquals("b", pool.execute(this::generate));
+        }
+
+        probed.probeStatus = 200;
+        waitUntil(() -> Boolean.TRUE.equals(backendStats(pool, 0).get("healthy")));
+        int before = probed.generateCalls.get();
+        for (int i = 0; i < 10; i++) {
+            pool.execute(this::generate);
+        }
+        assertTrue(probed.generateCalls.get() > before, "re-admitted backend got no calls");
+    }
+
+    @Test
+    void triesAnUnhealthyBackendWhenNoneIsHealthy() throws Exception {
+        StubBackend only = backend("a", 0);
+        only.status = 500;
+        OllamaEndpointPool pool = pool(new LlmWorkScheduler(2, 32, 10_000), false, 0, only);
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IOException.class, () -> pool.execute(this::generate));
+        }
+        only.status = 200;
+        assertEquals("a", pool.execute(this::generate));
+    }
+
+    @Test
+    void hedgesASlowCallOnTheOtherBackend() throws Exception {
+        StubBackend slow = backend("slow", 1500);
+        StubBackend fast = backend("fast", 0);
+        LlmWorkScheduler scheduler = new LlmWorkScheduler(2, 32, 10_000);
+        OllamaEndpointPool pool = pool(scheduler, true, 0, slow, fast);
+
+        for (int i = 0; i < 4; i++) {
+            long start = System.currentTimeMillis();
+            assertEquals("fast", pool.execute(this::generate, true));
+            assertTrue(System.currentTimeMillis() - start < 1200, "slow call was not hedged");
+        }
+        Map<String, Object> stats = pool.stats();
+        assertEquals(stats.get("hedgesSent"), stats.get("hedgesWon"));
+        assertEquals(0, scheduler.stats().get("running"));
+    }
+
+    @Test
+    void skipsTheHedgeWhenTheSchedulerHasNoFreeSlot() throws Exception {
+        StubBackend slow = backend("slow", 300);
+        StubBackend slowToo = backend("slow-too", 300);
+        LlmWorkScheduler scheduler = new LlmWorkScheduler(1, 32, 10_000);
+        OllamaEndpointPool pool = pool(scheduler, true, 0, slow, slowToo);
+
+        // The call being hedged holds the only slot, as it would inside LlmWorkScheduler.run()
+        assertTrue(scheduler.tryAcquireExtra());
+        try {
+            pool.execute(this::generate, true);
+        } finally {
+            scheduler.releaseExtra();
+        }
+        Map<String, Object> stats = pool.stats();
+        assertEquals(0L, stats.get("hedgesSent"));
+        assertEquals(1L, stats.get("hedgesSkipped"));
+        assertEquals(1, slow.generateCalls.get() + slowToo.generateCalls.get());
+    }
+
+    private String generate(String url) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private OllamaEndpointPool pool(LlmWorkScheduler scheduler, boolean hedging, long probeIntervalMs,
+            StubBackend... stubs) {
+        List<String> urls = new ArrayList<>();
+        for (StubBackend stub : stubs) {
+            urls.add(stub.url());
+        }
+        OllamaEndpointPool pool = new OllamaEndpointPool(scheduler, String.join(",", urls), 2, probeIntervalMs,
+                500, hedging, 0.95, 100, 100);
+        pools.add(pool);
+        return pool;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> backendStats(OllamaEndpointPool pool, int index) {
+        return ((List<Map<String, Object>>) pool.stats().get("backends")).get(index);
+    }
+
+    private StubBackend backend(String name, long delayMs) throws IOException {
+        StubBackend backend = new StubBackend(name, delayMs);
+        backends.add(backend);
+        return backend;
+    }
+
+    private static void waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(20);
+        }
+    }
+
+    /** Answers /api/generate with its name after delayMs, and /api/tags with probeStatus. */
+    private static final class StubBackend {
+        private final HttpServer server;
+        private final AtomicInteger generateCalls = new AtomicInteger();
+        private final AtomicInteger probeCalls = new AtomicInteger();
+        private volatile int status = 200;
+        private volatile int probeStatus = 200;
+
+        private StubBackend(String name, long delayMs) throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+            server.createContext("/api/generate", exchange -> {
+                generateCalls.incrementAndGet();
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                respond(exchange, status, name);
+            });
+            server.createContext("/api/tags", exchange -> {
+                probeCalls.incrementAndGet();
+                respond(exchange, probeStatus, "{\"models\":[]}");
+            });
+            server.start();
+        }
+
+        private String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + "/api/generate";
+        }
+
+        private static void respond(com.sun.net.httpserver.HttpExchange exchange, int status, String body)
+                throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.portfolio.backend.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OllamaHttpClientTest {
+
+    private HttpServer server;
+    private OllamaHttpClient client;
+    private String url;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/fast", exchange -> {
+            byte[] bytes = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort();
+        client = new OllamaHttpClient(1000, 5000, 5000, 2, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void returnsTheExtractedBody() throws Exception {
+        String body = client.postJson(url + "/fast", new byte[0],
+                response -> new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals("ok", body);
+        assertEquals(2, client.availableSlots());
+    }
+
+    @Test
+    void timesOutWithoutLeavingTheCallerInterrupted() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(TimeoutException.class,
+                    () -> client.postJson(url + "/slow", new byte[0], response -> null, 100));
+            assertFalse(Thread.currentThread().isInterrupted());
+        }
+        // Deadlines ending right as calls finish must not interrupt the thread afterwards either
+        for (int i = 0; i < 50; i++) {
+            try {
+                client.postJson(url + "/fast", new byte[0], response -> null, 1);
+            } catch (Exception e) {
+                // Either outcome is fine; a stray interrupt is not
+            }
+            Thread.sleep(2);
+            assertFalse(Thread.interrupted());
+        }
+        assertEquals(2, client.availableSlots());
+    }
+}
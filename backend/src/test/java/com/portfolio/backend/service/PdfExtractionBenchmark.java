@@ -0,0 +1,109 @@
+package com.portfolio.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * PDF extraction latency by page count, sequential (one page at a time on
+ * the calling thread) against parallel page ranges, to pick
+ * resume.extract.pdf.parallel-min-pages:
+ *
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.portfolio.backend.service.PdfExtractionBenchmark \
+ *       -Dexec.args="[iterations] [threads] [pages...]"
+ *
+ * Generated PDFs with 45 lines of text per page are used; page counts
+ * default to 1, 5, 20 and 50.
+ */
+public class PdfExtractionBenchmark {
+
+    private static final int LINES_PER_PAGE = 45;
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int[] pageCounts = args.length > 2
+                ? Arrays.stream(args, 2, args.length).mapToInt(Integer::parseInt).toArray()
+                : new int[] { 1, 5, 20, 50 };
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            DocumentParserService sequential = service(executor, 0, threads);
+            // Every document is split, down to one page per range
+            DocumentParserService parallel = service(executor, 1, threads);
+            sequential.warmUp();
+
+            System.out.printf("%6s %22s %22s%n", "pages", "sequential p50/p95 ms", "parallel p50/p95 ms");
+            for (int pages : pageCounts) {
+                byte[] pdf = pdf(pages);
+                double[] seq = measure(sequential, pdf, iterations);
+                double[] par = measure(parallel, pdf, iterations);
+                System.out.printf("%6d %13.1f / %6.1f %13.1f / %6.1f%n", pages, seq[0], seq[1], par[0], par[1]);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static DocumentParserService service(ExecutorService executor, int parallelMinPages, int threads) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DocumentParserService service = new DocumentParserService(new StageMetrics(registry), registry, executor,
+                executor);
+        ReflectionTestUtils.setField(service, "tempDir", "");
+        ReflectionTestUtils.setField(service, "pdfMaxMemoryBytes", 4194304L);
+        ReflectionTestUtils.setField(service, "parallelMinPages", parallelMinPages);
+        ReflectionTestUtils.setField(service, "minPagesPerChunk", 1);
+        ReflectionTestUtils.setField(service, "extractionThreads", threads);
+        ReflectionTestUtils.setField(service, "timeoutMs", 60000L);
+        ReflectionTestUtils.setField(service, "maxChars", 0L);
+        return service;
+    }
+
+    /** p50 and p95 in milliseconds, after as many unmeasured runs to warm up the JIT. */
+    private static double[] measure(DocumentParserService service, byte[] pdf, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            service.extractTextFromBytes(pdf, "application/pdf");
+        }
+        double[] times = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            service.extractTextFromBytes(pdf, "application/pdf");
+            times[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(times);
+        return new double[] { times[iterations / 2], times[Math.min(iterations - 1, iterations * 95 / 100)] };
+    }
+
+    private static byte[] pdf(int pages) throws Exception {
+        try (PDDocument document = new PDDocument()) {
+            for (int page = 1; page <= pages; page++) {
+                PDPage pdPage = new PDPage();
+                document.addPage(pdPage);
+                try (PDPageContentStream content = new PDPageContentStream(document, pdPage)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 10);
+                    content.setLeading(14);
+                    content.newLineAtOffset(50, 740);
+                    for (int line = 1; line <= LINES_PER_PAGE; line++) {
+                        content.showText("Page " + page + " line " + line
+                                + ": Led the migration of the billing service to Kubernetes and Postgres 15.");
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            document.save(bytes);
+            return bytes.toByteArray();
+        }
+    }
+}
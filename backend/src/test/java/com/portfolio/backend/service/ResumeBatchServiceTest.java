@@ -0,0 +1,101 @@
+package com.portfolio.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.backend.dto.ParseResponse;
+import com.portfolio.backend.dto.PortfolioData;
+import com.portfolio.backend.entity.Employer;
+import com.portfolio.backend.repository.BatchResumeResultRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResumeBatchServiceTest {
+
+    private final ResumePipeline pipeline = mock(ResumePipeline.class);
+    private final BatchResumeResultRepository repository = mock(BatchResumeResultRepository.class);
+    private ExecutorService executor;
+    private ResumeBatchService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        executor = Executors.newFixedThreadPool(2);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        ParseResponse response = new ParseResponse();
+        response.setPortfolio(new PortfolioData());
+        when(pipeline.parseAndAnalyze(eq("resume text"), any(), any(), any(), any())).thenReturn(response);
+        service = new ResumeBatchService(pipeline, repository, new StageMetrics(new SimpleMeterRegistry()), executor,
+                executor, 2, 25, 50, 2, 1 << 20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void retriesAnEntryWhileTheExtractionPoolIsBusy() throws Exception {
+        when(pipeline.extractText(any(), any(), any()))
+                .thenThrow(new DocumentExtractionException(503, "busy", "busy"))
+                .thenReturn("resume text");
+
+        JsonNode line = process().get(0);
+
+        assertEquals("saved", line.path("status").asText());
+        verify(pipeline, times(2)).extractText(any(), any(), any());
+    }
+
+    @Test
+    void failsAnEntryOnceTheRetriesAreUsedUp() throws Exception {
+        when(pipeline.extractText(any(), any(), any())).thenThrow(new DocumentExtractionException(503, "busy", "busy"));
+
+        JsonNode line = process().get(0);
+
+        assertEquals(503, line.path("errorStatus").asInt());
+        verify(pipeline, times(3)).extractText(any(), any(), any());
+    }
+
+    @Test
+    void doesNotRetryOtherExtractionFailures() throws Exception {
+        when(pipeline.extractText(any(), any(), any()))
+                .thenThrow(new DocumentExtractionException(413, "max-chars", "too long"));
+
+        JsonNode line = process().get(0);
+
+        assertEquals(413, line.path("errorStatus").asInt());
+        verify(pipeline, times(1)).extractText(any(), any(), any());
+    }
+
+    private List<JsonNode> process() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MultipartFile file = new MockMultipartFile("files", "resume.txt", "text/plain",
+                "Jane Doe".getBytes(StandardCharsets.UTF_8));
+        service.process(null, List.of(file), new Employer(), false, out);
+        ObjectMapper objectMapper = new ObjectMapper();
+        return out.toString(StandardCharsets.UTF_8).lines().map(line -> {
+            try {
+                return objectMapper.readTree(line);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).toList();
+    }
+}
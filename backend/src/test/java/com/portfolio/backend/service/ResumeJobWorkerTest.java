@@ -0,0 +1,159 @@
+package com.portfolio.backend.service;
+
+import com.portfolio.backend.entity.ResumeJob;
+import com.portfolio.backend.repository.ResumeJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Several worker nodes polling one table, as separate backend instances
+ * would. Runs on H2 in PostgreSQL mode, which supports FOR UPDATE SKIP LOCKED.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:resume-jobs;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ResumeJobWorkerTest {
+
+    @Autowired
+    private ResumeJobRepository jobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private final List<ResumeJobWorker> workers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jobRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.forEach(ResumeJobWorker::shutdown);
+    }
+
+    @Test
+    void concurrentNodesRunEachJobOnce() throws Exception {
+        int jobs = 40;
+        for (int i = 0; i < jobs; i++) {
+            queue();
+        }
+        Map<String, AtomicInteger> runs = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(jobs);
+        ResumeJobWorker.Handler handler = (job, worker) -> {
+            runs.computeIfAbsent(job.getId(), id -> new AtomicInteger()).incrementAndGet();
+            sleep(5);
+            transactionTemplate.execute(tx -> jobRepository.complete(job.getId(), worker.getNodeId(),
+                    job.getAttempts(), ResumeJob.Status.RUNNING, ResumeJob.Status.SUCCEEDED, "{}", null, null,
+                    jobRepository.databaseNow()));
+            done.countDown();
+        };
+        for (int i = 1; i <= 4; i++) {
+            ResumeJobWorker worker = new ResumeJobWorker("node-" + i, 3, 60_000, 3, jobRepository,
+                    transactionTemplate, handler);
+            workers.add(worker);
+            worker.start(10);
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS), "jobs left: " + done.getCount());
+        assertEquals(jobs, runs.size());
+        runs.forEach((id, count) -> assertEquals(1, count.get(), "runs of job " + id));
+        assertEquals(jobs, jobRepository.countByStatus(ResumeJob.Status.SUCCEEDED));
+    }
+
+    @Test
+    void nodeThatLostItsLeaseCannotCompleteTheJob() {
+        String id = queue();
+        claim("node-a");
+        expireLease(id);
+        claim("node-b");
+
+        ResumeJob job = jobRepository.findById(id).orElseThrow();
+        assertEquals("node-b", job.getLockedBy());
+        assertEquals(2, job.getAttempts());
+        assertTrue(transactionTemplate.execute(tx -> jobRepository.lockOwned(id, "node-a", 1)).isEmpty());
+        assertEquals(0, (int) transactionTemplate.execute(tx -> jobRepository.complete(id, "node-a", 1,
+                ResumeJob.Status.RUNNING, ResumeJob.Status.SUCCEEDED, "{}", null, null, jobRepository.databaseNow())));
+        assertEquals(1, transactionTemplate.execute(tx -> jobRepository.lockOwned(id, "node-b", 2)).size());
+    }
+
+    @Test
+    void requeueKeepsTheAttemptAndCountsTheRequeue() {
+        String id = queue();
+        claim("node-a");
+
+        LocalDateTime runAfter = jobRepository.databaseNow().plusMinutes(5);
+        assertEquals(1, jobRepository.requeue(id, "node-a", 1, ResumeJob.Status.RUNNING, ResumeJob.Status.QUEUED,
+                runAfter));
+
+        ResumeJob job = jobRepository.findById(id).orElseThrow();
+        assertEquals(ResumeJob.Status.QUEUED, job.getStatus());
+        assertEquals(0, job.getAttempts());
+        assertEquals(1, job.getRequeues());
+        // Not due yet
+        assertTrue(transactionTemplate.execute(tx -> jobRepository.lockClaimable(jobRepository.databaseNow(), 3, 10))
+                .isEmpty());
+    }
+
+    private String queue() {
+        ResumeJob job = new ResumeJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setStatus(ResumeJob.Status.QUEUED);
+        job.setInputText("resume");
+        job.setCreatedAt(jobRepository.databaseNow());
+        return jobRepository.save(job).getId();
+    }
+
+    private void claim(String node) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            LocalDateTime now = jobRepository.databaseNow();
+            List<String> ids = jobRepository.lockClaimable(now, 3, 10);
+            assertEquals(1, ids.size());
+            jobRepository.claim(ids, ResumeJob.Status.RUNNING, node, now.plusMinutes(1), now);
+        });
+    }
+
+    private void expireLease(String id) {
+        ResumeJob job = jobRepository.findById(id).orElseThrow();
+        job.setLeaseExpiresAt(jobRepository.databaseNow().minusSeconds(1));
+        jobRepository.save(job);
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
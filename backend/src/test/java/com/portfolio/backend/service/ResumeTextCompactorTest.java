@@ -0,0 +1,51 @@
+package com.portfolio.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResumeTextCompactorTest {
+
+    @Test
+    void normalizesBulletsAndDropsPageMarkersAndRepeatedLines() {
+        ResumeTextCompactor compactor = new ResumeTextCompactor(true, 3000);
+        String text = "Jane Doe\r\n•  Built the billing service\n\nPage 1 of 2\n"
+                + "Jane Doe - Senior Engineer\n\n\n\nJane Doe - Senior Engineer\n";
+        assertEquals("Jane Doe\n- Built the billing service\n\nJane Doe - Senior Engineer", compactor.compact(text));
+    }
+
+    @Test
+    void dropsLowValueSectionsAndKeepsWholeLinesWhenOverBudget() {
+        ResumeTextCompactor compactor = new ResumeTextCompactor(true, 20);
+        String text = "Experience\nBuilt the billing service\nReferences\nAvailable on request from my manager\n"
+                + "Skills\nJava\nSpring\nKotlin\nPostgreSQL\nRedis\nKafka\nDocker";
+        String compacted = compactor.compact(text);
+        assertFalse(compacted.contains("Available on request"));
+        assertTrue(compacted.startsWith("Experience\nBuilt the billing service\nSkills"));
+        assertTrue(compacted.length() <= 70);
+        assertTrue(text.contains(compacted.substring(compacted.lastIndexOf('\n') + 1)));
+    }
+
+    @Test
+    void cutsAFirstLineLongerThanTheBudget() {
+        ResumeTextCompactor compactor = new ResumeTextCompactor(true, 10);
+        String text = "word ".repeat(100).trim();
+        assertEquals(text.substring(0, 35), compactor.compact(text));
+    }
+
+    @Test
+    void doesNotSplitASurrogatePairWhenCutting() {
+        ResumeTextCompactor compactor = new ResumeTextCompactor(true, 10);
+        // 34 characters then an emoji whose high surrogate would be the 35th
+        String text = "x".repeat(34) + "😀" + "y".repeat(100);
+        assertEquals("x".repeat(34), compactor.compact(text));
+    }
+
+    @Test
+    void returnsTheTextUnchangedWhenDisabled() {
+        ResumeTextCompactor compactor = new ResumeTextCompactor(false, 1);
+        assertEquals("  a\r\nb  ", compactor.compact("  a\r\nb  "));
+    }
+}
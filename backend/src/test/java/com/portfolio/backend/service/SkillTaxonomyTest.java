@@ -0,0 +1,42 @@
+package com.portfolio.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SkillTaxonomyTest {
+
+    private final SkillTaxonomy taxonomy = new SkillTaxonomy("skills/skill-dictionary.json", 60);
+
+    @Test
+    void findsSkillsInOrderOfFirstAppearanceUnderCanonicalNames() {
+        assertEquals(List.of("Java", "JavaScript", "React"),
+                names(taxonomy.scan("Core Java, JS and ReactJS; also javascript and React.")));
+    }
+
+    @Test
+    void prefersTheLongestOverlappingMatch() {
+        assertEquals(List.of("React Native"), names(taxonomy.scan("Shipped apps in React Native")));
+    }
+
+    @Test
+    void matchesOnlyOnWordBoundaries() {
+        assertEquals(List.of(), names(taxonomy.scan("Javanese, jsonify, unreactive")));
+        assertEquals(List.of("C++", "C#"), names(taxonomy.scan("Languages: C++, C#.")));
+    }
+
+    @Test
+    void ignoresAmbiguousAliasesInTextButCanonicalizesThem() {
+        assertEquals(List.of(), names(taxonomy.scan("Ready to go and excel at work")));
+        assertEquals("Go", taxonomy.canonicalize("go").getName());
+        assertEquals("Excel", taxonomy.canonicalize(" Excel ").getName());
+        assertNull(taxonomy.canonicalize("not a skill"));
+    }
+
+    private static List<String> names(List<SkillTaxonomy.CanonicalSkill> skills) {
+        return skills.stream().map(SkillTaxonomy.CanonicalSkill::getName).toList();
+    }
+}
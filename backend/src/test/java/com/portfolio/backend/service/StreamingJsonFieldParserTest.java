@@ -0,0 +1,84 @@
+package com.portfolio.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingJsonFieldParserTest {
+
+    private static final String JSON = "{\"fullName\": \"Jane \\\"JD\\\" Doe\", \"age\": 41, \"remote\": true,"
+            + " \"about\": \"Likes {braces}, [brackets] and \\\\ backslashes\","
+            + " \"skills\": [{\"name\": \"Java\", \"tags\": [\"jvm\", \"backend\"]}, \"Go\", 7],"
+            + " \"matrix\": [[1, 2], [3]], \"address\": {\"city\": \"Berlin\"}}";
+
+    private final Map<String, JsonNode> fields = new LinkedHashMap<>();
+    private final StreamingJsonFieldParser parser = new StreamingJsonFieldParser(new ObjectMapper(), fields::put);
+
+    @Test
+    void reportsTopLevelFieldsAndArrayElements() {
+        parser.feed(JSON);
+
+        assertTrue(parser.isFinished());
+        assertEquals("Jane \"JD\" Doe", fields.get("fullName").asText());
+        assertEquals(41, fields.get("age").asInt());
+        assertTrue(fields.get("remote").asBoolean());
+        assertEquals("Likes {braces}, [brackets] and \\ backslashes", fields.get("about").asText());
+        assertEquals("backend", fields.get("skills[0]").path("tags").get(1).asText());
+        assertEquals("Go", fields.get("skills[1]").asText());
+        assertEquals(7, fields.get("skills[2]").asInt());
+        assertEquals(3, fields.get("skills").size());
+        assertEquals("[[1,2],[3]]", fields.get("matrix").toString());
+        assertEquals("[1,2]", fields.get("matrix[0]").toString());
+        assertEquals("[3]", fields.get("matrix[1]").toString());
+        assertEquals("Berlin", fields.get("address").path("city").asText());
+    }
+
+    @Test
+    void givesTheSameFieldsForEveryChunkSplit() {
+        Map<String, JsonNode> whole = new LinkedHashMap<>();
+        new StreamingJsonFieldParser(new ObjectMapper(), whole::put).feed(JSON);
+
+        // Splits every string, escape sequence and key at every position
+        for (int split = 1; split < JSON.length(); split++) {
+            Map<String, JsonNode> chunked = new LinkedHashMap<>();
+            StreamingJsonFieldParser chunkedParser = new StreamingJsonFieldParser(new ObjectMapper(), chunked::put);
+            chunkedParser.feed(JSON.substring(0, split));
+            chunkedParser.feed(JSON.substring(split));
+            assertEquals(whole, chunked, "split at " + split);
+        }
+        // One character at a time, as tokens can be
+        Map<String, JsonNode> single = new LinkedHashMap<>();
+        StreamingJsonFieldParser singleParser = new StreamingJsonFieldParser(new ObjectMapper(), single::put);
+        for (char c : JSON.toCharArray()) {
+            singleParser.feed(String.valueOf(c));
+        }
+        assertEquals(whole, single);
+    }
+
+    @Test
+    void ignoresChatterBeforeTheObjectEvenWithQuotes() {
+        parser.feed("Here is the \"portfolio\" you asked for, with a stray \" quote:\n```json\n");
+        parser.feed("{\"fullName\": \"Jane\"}\n```\nDone \"!\" {\"ignored\": 1}");
+
+        assertTrue(parser.isFinished());
+        assertEquals(Map.of("fullName", fields.get("fullName")), fields);
+        assertEquals("Jane", fields.get("fullName").asText());
+    }
+
+    @Test
+    void reportsNothingUntilAValueIsComplete() {
+        parser.feed("{\"fullName\": \"Jane Do");
+        assertTrue(fields.isEmpty());
+        parser.feed("e\", \"skills\": [\"Java\", \"Go");
+        assertEquals(2, fields.size());
+        assertEquals("Java", fields.get("skills[0]").asText());
+        assertFalse(parser.isFinished());
+    }
+}